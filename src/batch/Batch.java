@@ -0,0 +1,219 @@
+package batch;
+
+import puzzles.PuzzleFiles;
+import puzzles.lunarlanding.model.LunarLandingConfig;
+import solver.Configuration;
+import solver.SearchBudget;
+import solver.SearchResult;
+import solver.Solver;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Solves many TipOver and Lunar Landing boards in one run and prints one machine readable line per board as soon as it
+ * is solved, either tab separated or as JSON. The boards come from a directory or from a manifest file listing one
+ * board per line, and each board's kind is told from its header. Boards are solved on a fixed number of threads with a
+ * bounded queue, so a huge batch never holds more than a few boards in memory at once.
+ *
+ * @author Miguel Reyes
+ */
+public class Batch {
+
+    /**
+     * Columns of every output line, in order.
+     */
+    private static final String[] COLUMNS =
+            {"file", "puzzle", "status", "steps", "total", "unique", "expanded", "millis", "moves", "error"};
+
+    /**
+     * Runs a batch.
+     *
+     * @param args a directory of boards or a manifest file, followed by any of
+     *             --threads N: boards solved at once, the number of processors by default;
+     *             --format tsv|jsonl: the output format, tsv by default;
+     *             --timeout MS: the most time spent on each board, unlimited by default.
+     * @throws IOException          if the input can not be listed
+     * @throws InterruptedException if interrupted while waiting for a board
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.out.println("Usage: java batch.Batch dir|manifest [--threads N] [--format tsv|jsonl] [--timeout MS]");
+            return;
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean json = false;
+        SearchBudget budget = SearchBudget.UNLIMITED;
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--threads" -> threads = Integer.parseInt(args[i + 1]);
+                case "--format" -> json = args[i + 1].equals("jsonl");
+                case "--timeout" -> budget = budget.withMaxMillis(Long.parseLong(args[i + 1]));
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        List<Path> boards = boards(Paths.get(args[0]));
+
+        // a full queue makes the submitting thread solve the board itself, which holds back further submissions
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 2), new ThreadPoolExecutor.CallerRunsPolicy());
+        CompletionService<String[]> lines = new ExecutorCompletionService<>(pool);
+        if (!json) {
+            System.out.println(String.join("\t", COLUMNS));
+        }
+        SearchBudget boardBudget = budget;
+        int printed = 0;
+        for (Path board : boards) {
+            lines.submit(() -> solve(board, boardBudget));
+            // print whatever has finished so far, so the output keeps flowing while boards are submitted
+            for (var done = lines.poll(); done != null; done = lines.poll()) {
+                print(done, json);
+                ++printed;
+            }
+        }
+        pool.shutdown();
+        for (; printed < boards.size(); printed++) {
+            print(lines.take(), json);
+        }
+    }
+
+    /**
+     * Lists the boards to solve.
+     *
+     * @param input a directory, whose regular files are taken in name order, or a manifest naming one board per line.
+     *              Blank lines and lines starting with # are skipped, and relative names are taken from the manifest's
+     *              directory.
+     * @return the boards
+     * @throws IOException if the input can not be read
+     */
+    static List<Path> boards(Path input) throws IOException {
+        if (Files.isDirectory(input)) {
+            try (Stream<Path> files = Files.list(input)) {
+                return files.filter(Files::isRegularFile).sorted().toList();
+            }
+        }
+        List<Path> boards = new ArrayList<>();
+        Path base = input.toAbsolutePath().getParent();
+        for (String line : Files.readAllLines(input)) {
+            line = line.trim();
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                boards.add(base.resolve(line));
+            }
+        }
+        return boards;
+    }
+
+    /**
+     * Solves one board. A board that can not be read, or whose search fails, gives an ERROR line naming the board.
+     *
+     * @param board  the board
+     * @param budget limits on the search
+     * @return the values of every column
+     */
+    static String[] solve(Path board, SearchBudget budget) {
+        Configuration start;
+        try {
+            start = PuzzleFiles.load(board);
+        } catch (IOException | RuntimeException e) {
+            return new String[]{board.toString(), "", "ERROR", "", "", "", "", "", "", String.valueOf(e.getMessage())};
+        }
+        String puzzle = start instanceof LunarLandingConfig ? "lunarlanding" : "tipover";
+        try {
+            // only the moves are printed, so the path is kept as moves rather than configurations
+            SearchResult result = new Solver().solveMoves(start, budget);
+            boolean solved = result.getStatus() == SearchResult.Status.SOLVED;
+            String steps = solved ? String.valueOf(result.getPathLength() - 1) : "";
+            StringJoiner moves = new StringJoiner(", ");
+            if (solved) {
+                result.getMovePath().getMoves().forEach(move -> moves.add(move.toString()));
+            }
+            return new String[]{board.toString(), puzzle, result.getStatus().toString(), steps,
+                    String.valueOf(result.getTotalConfigs()), String.valueOf(result.getUniqueConfigs()),
+                    String.valueOf(result.getExpandedConfigs()), String.valueOf(result.getElapsedMillis()),
+                    moves.toString(), ""};
+        } catch (RuntimeException e) {
+            return new String[]{board.toString(), puzzle, "ERROR", "", "", "", "", "", "", String.valueOf(e)};
+        }
+    }
+
+    /**
+     * Prints the line of a finished board.
+     *
+     * @param done the finished board
+     * @param json whether to print JSON rather than tab separated values
+     * @throws InterruptedException if interrupted while waiting for the board
+     */
+    private static void print(Future<String[]> done, boolean json) throws InterruptedException {
+        String[] values;
+        try {
+            values = done.get();
+        } catch (ExecutionException e) {
+            values = new String[]{"", "", "ERROR", "", "", "", "", "", "", String.valueOf(e.getCause())};
+        }
+        if (!json) {
+            // tabs and line breaks in a value would split the row
+            for (int i = 0; i < values.length; i++) {
+                values[i] = values[i].replaceAll("[\\t\\r\\n]", " ");
+            }
+            System.out.println(String.join("\t", values));
+            return;
+        }
+        StringBuilder line = new StringBuilder("{");
+        for (int i = 0; i < COLUMNS.length; i++) {
+            if (values[i].isEmpty()) {
+                continue;
+            }
+            if (line.length() > 1) {
+                line.append(',');
+            }
+            line.append('"').append(COLUMNS[i]).append("\":");
+            // counts are numbers, everything else is a string
+            if (i >= 3 && i <= 7) {
+                line.append(values[i]);
+            } else {
+                line.append('"').append(escape(values[i])).append('"');
+            }
+        }
+        System.out.println(line.append('}'));
+    }
+
+    /**
+     * Escapes a string for use inside JSON quotes.
+     *
+     * @param value the string
+     * @return the escaped string
+     */
+    private static String escape(String value) {
+        StringBuilder escaped = new StringBuilder();
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> escaped.append("\\\"");
+                case '\\' -> escaped.append("\\\\");
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> escaped.append("\\r");
+                case '\t' -> escaped.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        escaped.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        escaped.append(c);
+                    }
+                }
+            }
+        }
+        return escaped.toString();
+    }
+}
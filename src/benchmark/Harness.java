@@ -0,0 +1,123 @@
+package benchmark;
+
+import solver.SolverMetrics;
+
+import java.util.function.Supplier;
+
+/**
+ * A small stand-in for a benchmark framework, so the puzzles can be measured without any library on the class path.
+ * Each benchmark is run for a number of warmup iterations, to let the JIT compile it, and then for a number of measured
+ * iterations. An iteration calls the operation over and over until a minimum time has passed, and the result of every
+ * call is kept in a field nobody reads so the JIT can not throw the work away. Time per call is reported as the mean of
+ * the measured iterations with their spread, and allocation per call from the thread's allocation counter.
+ *
+ * @author Miguel Reyes
+ */
+public class Harness {
+
+    // Results of the operations, written so the work behind them must be done
+    private static volatile Object sink;
+
+    private final int warmupIterations;
+    private final int measuredIterations;
+    private final long iterationNanos;
+
+    /**
+     * The measurements of one benchmark.
+     *
+     * @param name        the benchmark's name
+     * @param nanosPerOp  mean time per call over the measured iterations
+     * @param errorPerOp  standard deviation of the time per call between iterations
+     * @param bytesPerOp  bytes allocated per call, or -1 if the JVM can not tell
+     * @param ops         calls made during the measured iterations
+     */
+    public record Result(String name, double nanosPerOp, double errorPerOp, double bytesPerOp, long ops) {
+
+        @Override
+        public String toString() {
+            return String.format("%-40s %14.1f ns/op +- %10.1f  %12.1f B/op  %10d ops",
+                    this.name, this.nanosPerOp, this.errorPerOp, this.bytesPerOp, this.ops);
+        }
+    }
+
+    /**
+     * Creates a harness with 5 warmup and 5 measured iterations of at least half a second each.
+     */
+    public Harness() {
+        this(5, 5, 500);
+    }
+
+    /**
+     * Creates a harness.
+     *
+     * @param warmupIterations   iterations run before measuring
+     * @param measuredIterations iterations measured
+     * @param iterationMillis    the least time each iteration runs for
+     */
+    public Harness(int warmupIterations, int measuredIterations, long iterationMillis) {
+        this.warmupIterations = warmupIterations;
+        this.measuredIterations = measuredIterations;
+        this.iterationNanos = iterationMillis * 1_000_000;
+    }
+
+    /**
+     * Measures an operation and prints the result on standard out.
+     *
+     * @param name      the benchmark's name
+     * @param operation the work to measure, returning something that depends on all of it
+     * @return the measurements
+     */
+    public Result run(String name, Supplier<?> operation) {
+        for (int i = 0; i < this.warmupIterations; i++) {
+            iterate(operation);
+        }
+        double[] nanosPerOp = new double[this.measuredIterations];
+        long ops = 0;
+        long allocatedBefore = SolverMetrics.currentThreadAllocatedBytes();
+        for (int i = 0; i < this.measuredIterations; i++) {
+            long start = System.nanoTime();
+            long iterationOps = iterate(operation);
+            nanosPerOp[i] = (double) (System.nanoTime() - start) / iterationOps;
+            ops += iterationOps;
+        }
+        long allocatedAfter = SolverMetrics.currentThreadAllocatedBytes();
+
+        double mean = 0;
+        for (double value : nanosPerOp) {
+            mean += value / nanosPerOp.length;
+        }
+        double variance = 0;
+        for (double value : nanosPerOp) {
+            variance += (value - mean) * (value - mean) / Math.max(1, nanosPerOp.length - 1);
+        }
+        double bytesPerOp = allocatedBefore < 0 ? -1 : (double) (allocatedAfter - allocatedBefore) / ops;
+        Result result = new Result(name, mean, Math.sqrt(variance), bytesPerOp, ops);
+        System.out.println(result);
+        return result;
+    }
+
+    /**
+     * Calls the operation until the iteration time has passed. The clock is read once per batch of calls, and batches
+     * double while they are short, so reading the clock does not swamp operations of a few nanoseconds.
+     *
+     * @param operation the work to measure
+     * @return the number of calls made
+     */
+    private long iterate(Supplier<?> operation) {
+        long start = System.nanoTime();
+        long ops = 0;
+        int batch = 1;
+        long elapsed;
+        do {
+            for (int i = 0; i < batch; i++) {
+                sink = operation.get();
+            }
+            ops += batch;
+            elapsed = System.nanoTime() - start;
+            if (elapsed < this.iterationNanos / 100 && batch < 1 << 20) {
+                batch *= 2;
+            }
+        } while (elapsed < this.iterationNanos);
+        return ops;
+    }
+}
@@ -0,0 +1,60 @@
+package benchmark;
+
+import puzzles.PuzzleFiles;
+import puzzles.clock.ClockConfiguration;
+import puzzles.lunarlanding.model.LunarLandingConfig;
+import puzzles.tipover.model.TipOverConfig;
+import puzzles.water.WaterConfiguration;
+import solver.Configuration;
+import util.Coordinates;
+import util.Grid;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmarks of the small operations a search repeats for every configuration: building neighbors, copying, comparing
+ * and hashing boards, and adding coordinates.
+ *
+ * @author Miguel Reyes
+ */
+public class MicroBenchmarks {
+
+    /**
+     * Runs every micro benchmark.
+     *
+     * @param args [0]: the data directory, "data" by default;
+     *             [1..3]: warmup iterations, measured iterations and milliseconds per iteration, 5 5 500 by default.
+     * @throws IOException if a board can not be read
+     */
+    public static void main(String[] args) throws IOException {
+        Path data = Paths.get(args.length > 0 ? args[0] : "data");
+        Harness harness = args.length > 3
+                ? new Harness(Integer.parseInt(args[1]), Integer.parseInt(args[2]), Long.parseLong(args[3]))
+                : new Harness();
+
+        Configuration clock = new ClockConfiguration(12, 3, 9);
+        harness.run("getNeighbors clock", clock::getNeighbors);
+        Configuration water = new WaterConfiguration(List.of(3, 5, 7), new ArrayList<>(List.of(1, 5, 2)), 4);
+        harness.run("getNeighbors water", water::getNeighbors);
+        TipOverConfig tipOver = PuzzleFiles.loadTipOver(data.resolve("tipover/tipover-a.txt"));
+        harness.run("getNeighbors tipover-a", tipOver::getNeighbors);
+        LunarLandingConfig lunarLanding = PuzzleFiles.loadLunarLanding(data.resolve("lunarlanding/lula-a.txt"));
+        harness.run("getNeighbors lula-a", lunarLanding::getNeighbors);
+        harness.run("encode tipover-a", tipOver::encode);
+        harness.run("encode lula-a", lunarLanding::encode);
+
+        Grid<String> board = tipOver.getBoard();
+        Grid<String> copy = new Grid<>(board);
+        harness.run("Grid copy", () -> new Grid<>(board));
+        harness.run("Grid equals", () -> board.equals(copy));
+        harness.run("Grid hashCode", board::hashCode);
+
+        Coordinates origin = new Coordinates(3, 4);
+        Coordinates delta = new Coordinates(-1, 2);
+        harness.run("Coordinates sum", () -> origin.sum(delta));
+    }
+}
@@ -0,0 +1,127 @@
+package benchmark;
+
+import puzzles.PuzzleFiles;
+import puzzles.clock.ClockConfiguration;
+import puzzles.water.WaterConfiguration;
+import solver.AStarSolver;
+import solver.ChunkedFrontier;
+import solver.Configuration;
+import solver.EncodableConfiguration;
+import solver.ExternalSolver;
+import solver.IDAStarSolver;
+import solver.OffHeapStateTable;
+import solver.ParallelSolver;
+import solver.Solver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * End to end benchmarks: the time and allocation of a whole BFS with a new Solver, for every TipOver and Lunar Landing
+ * board in the data directory and for Clock and Water puzzles of growing size. Each board is also solved with the
+ * other solvers and data structures, see {@link #alternates(Harness, String, Configuration)}.
+ *
+ * @author Miguel Reyes
+ */
+public class SolveBenchmarks {
+
+    /**
+     * Runs every solve benchmark.
+     *
+     * @param args [0]: the data directory, "data" by default;
+     *             [1..3]: warmup iterations, measured iterations and milliseconds per iteration, 5 5 500 by default.
+     * @throws IOException if a board can not be read
+     */
+    public static void main(String[] args) throws IOException {
+        Path data = Paths.get(args.length > 0 ? args[0] : "data");
+        Harness harness = args.length > 3
+                ? new Harness(Integer.parseInt(args[1]), Integer.parseInt(args[2]), Long.parseLong(args[3]))
+                : new Harness();
+
+        for (int hours : new int[]{12, 1_000, 100_000}) {
+            Configuration clock = new ClockConfiguration(hours, 1, hours / 2 + 1);
+            harness.run("solve clock " + hours, () -> new Solver().getShortestPath(clock));
+        }
+        int[][] waters = {{4, 3, 5}, {1, 13, 17}, {6, 11, 17, 23}};
+        for (int[] water : waters) {
+            List<Integer> buckets = new ArrayList<>();
+            for (int i = 1; i < water.length; i++) {
+                buckets.add(water[i]);
+            }
+            Configuration start = new WaterConfiguration(buckets, new ArrayList<>(Collections.nCopies(buckets.size(), 0)),
+                    water[0]);
+            harness.run("solve water " + water[0] + " " + buckets, () -> new Solver().getShortestPath(start));
+        }
+        for (Path board : boards(data.resolve("tipover"), "tipover-")) {
+            Configuration start = PuzzleFiles.loadTipOver(board);
+            harness.run("solve " + board.getFileName(), () -> new Solver().getShortestPath(start));
+            alternates(harness, board.getFileName().toString(), start);
+        }
+        for (Path board : boards(data.resolve("lunarlanding"), "lula-")) {
+            Configuration start = PuzzleFiles.loadLunarLanding(board);
+            harness.run("solve " + board.getFileName(), () -> new Solver().getShortestPath(start));
+            alternates(harness, board.getFileName().toString(), start);
+        }
+    }
+
+    /**
+     * Solves a board with each of the other solvers and data structures, to compare with the plain Solver.
+     *
+     * @param harness runs the benchmarks
+     * @param name    the board's file name
+     * @param start   the board
+     */
+    static void alternates(Harness harness, String name, Configuration start) {
+        harness.run("chunked " + name, () -> {
+            // encodable searches keep their codes in a LongFrontier, so the chunked frontier needs an object search
+            Solver solver = new Solver(ChunkedFrontier::new);
+            solver.setEncoded(false);
+            return solver.getShortestPath(start);
+        });
+        harness.run("off-heap " + name, () -> {
+            Solver solver = new Solver();
+            solver.setStateTableFactory(() -> new OffHeapStateTable(1 << 24));
+            return solver.getShortestPath(start);
+        });
+        harness.run("parallel " + name, () -> new ParallelSolver().getShortestPath(start));
+        if (start instanceof EncodableConfiguration encodable && encodable.isEncodable()) {
+            harness.run("external " + name, () -> {
+                try {
+                    return new ExternalSolver().getShortestPath(encodable);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        harness.run("a* " + name, () -> new AStarSolver().getShortestPath(start));
+        // IDA* would try every path on a board with no solution, so it is only bounded by a known solution's length
+        int steps = new Solver().getShortestPath(start).size() - 1;
+        if (steps >= 0) {
+            harness.run("ida* " + name, () -> new IDAStarSolver(steps).getShortestPath(start));
+        }
+    }
+
+    /**
+     * Lists the boards in a directory, leaving out the command scripts that end in -in.
+     *
+     * @param dir    the directory
+     * @param prefix the start of every board's file name
+     * @return the boards in name order
+     * @throws IOException if the directory can not be listed
+     */
+    static List<Path> boards(Path dir, String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> {
+                String name = file.getFileName().toString();
+                return name.startsWith(prefix) && name.endsWith(".txt") && !name.endsWith("-in.txt");
+            }).sorted().toList();
+        }
+    }
+}
@@ -1,12 +1,13 @@
 /**
  * Module description for the puzzles.
- * Required due to use of JavaFX.
+ * Required due to use of JavaFX, and jdk.management for the allocation counts in solver metrics.
  * YOU MAY RENAME THE MODULE.
  * @author RIT CS
  * November 2021
  */
 module BFSPuzzles {
     requires transitive javafx.controls;
+    requires jdk.management;
     exports puzzles.tipover.gui;
     exports puzzles.lunarlanding.gui;
 }
@@ -0,0 +1,105 @@
+package puzzles;
+
+import puzzles.lunarlanding.model.LunarLandingConfig;
+import puzzles.tipover.model.TipOverConfig;
+import solver.Configuration;
+import util.Coordinates;
+import util.Grid;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads the board files in the data directory into start configurations, in the same formats the TipOver and
+ * LunarLanding mains read, for tools that work on many boards at once.
+ *
+ * @author Miguel Reyes
+ */
+public class PuzzleFiles {
+
+    private PuzzleFiles() {
+    }
+
+    /**
+     * Reads a board of either kind, telling them apart by their header: a TipOver header has six fields and a Lunar
+     * Landing header has four.
+     *
+     * @param file the board
+     * @return its start configuration
+     * @throws IOException if the board can not be read or its header fits neither puzzle
+     */
+    public static Configuration load(Path file) throws IOException {
+        String header;
+        try (BufferedReader inputReader = new BufferedReader(new FileReader(file.toFile()))) {
+            header = inputReader.readLine();
+        }
+        int fields = header == null ? 0 : header.trim().split("\\s+").length;
+        return switch (fields) {
+            case 6 -> loadTipOver(file);
+            case 4 -> loadLunarLanding(file);
+            default -> throw new IOException(file + " is neither a TipOver nor a Lunar Landing board");
+        };
+    }
+
+    /**
+     * Reads a TipOver board: a header of rows, columns, tipper row and column and goal row and column, then one line of
+     * heights per row.
+     *
+     * @param file the board
+     * @return its start configuration
+     * @throws IOException if the board can not be read
+     */
+    public static TipOverConfig loadTipOver(Path file) throws IOException {
+        try (BufferedReader inputReader = new BufferedReader(new FileReader(file.toFile()))) {
+            String line = inputReader.readLine();
+            String[] fields = line.split("\\s+");
+            int rows = Integer.parseInt(fields[0]);
+            int cols = Integer.parseInt(fields[1]);
+            byte[] heights = new byte[rows * cols];
+            Coordinates tipper = new Coordinates(Integer.parseInt(fields[2]), Integer.parseInt(fields[3]));
+            Coordinates goalCrate = new Coordinates(Integer.parseInt(fields[4]), Integer.parseInt(fields[5]));
+            int row = 0;
+            while ((line = inputReader.readLine()) != null && !line.isEmpty()) {
+                fields = line.split("\\s+");
+                for (int col = 0; col < fields.length; col++) {
+                    heights[row * cols + col] = Byte.parseByte(fields[col]);
+                }
+                row++;
+            }
+            return new TipOverConfig(rows, cols, heights, tipper, goalCrate, false);
+        }
+    }
+
+    /**
+     * Reads a Lunar Landing board: a header of rows, columns and goal row and column, then one line per piece with its
+     * name, row and column.
+     *
+     * @param file the board
+     * @return its start configuration
+     * @throws IOException if the board can not be read
+     */
+    public static LunarLandingConfig loadLunarLanding(Path file) throws IOException {
+        try (BufferedReader inputReader = new BufferedReader(new FileReader(file.toFile()))) {
+            String line = inputReader.readLine();
+            String[] fields = line.split("\\s+");
+            Grid<String> board = new Grid<>("", Integer.parseInt(fields[0]), Integer.parseInt(fields[1]));
+            Coordinates goalLunar = new Coordinates(Integer.parseInt(fields[2]), Integer.parseInt(fields[3]));
+            Coordinates explorer = null;
+            Map<String, Coordinates> allPiecePos = new HashMap<>();
+            while ((line = inputReader.readLine()) != null && !line.isEmpty()) {
+                fields = line.split("\\s+");
+                Coordinates piece = new Coordinates(Integer.parseInt(fields[1]), Integer.parseInt(fields[2]));
+                if (fields[0].equals("E")) {
+                    explorer = piece;
+                }
+                board.set(fields[0], piece);
+                allPiecePos.put(fields[0], piece);
+            }
+            return new LunarLandingConfig(board, allPiecePos, explorer, goalLunar);
+        }
+    }
+}
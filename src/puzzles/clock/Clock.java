@@ -1,6 +1,9 @@
 package puzzles.clock;
 
 import solver.Configuration;
+import solver.SearchBudget;
+import solver.SearchResult;
+import solver.SolveCache;
 import solver.Solver;
 
 import java.util.Collection;
@@ -16,11 +19,12 @@ public class Clock {
      *
      * @param args [0]: number of hours on the clock;
      *             [1]: starting time on the clock;
-     *             [2]: goal time to which the clock should be set.
+     *             [2]: goal time to which the clock should be set;
+     *             [3]: optionally --bidirectional, to search from the start and the goal at once.
      */
     public static void main(String[] args) {
-        if (args.length != 3) {
-            System.out.println("Usage: java Clock hours start end");
+        if (args.length != 3 && !(args.length == 4 && args[3].equals("--bidirectional"))) {
+            System.out.println("Usage: java Clock hours start end [--bidirectional]");
         } else {
             int numberOfHours = Integer.parseInt(args[0]);
             int startTime = Integer.parseInt(args[1]);
@@ -29,16 +33,26 @@ public class Clock {
             System.out.println("Hours: " + numberOfHours + ", Start: " + startTime + ", End: " + endTime);
 
             //Create an instance of a ClockConfiguration as Configuration type and then store its graph in a Map.
-            Configuration clock = new ClockConfiguration(numberOfHours, startTime, endTime);
+            ClockConfiguration clock = new ClockConfiguration(numberOfHours, startTime, endTime);
 //            Map<Integer, Configuration> graph = clock.constructGraph();
 
             //Create an instance of a ClockSolver and store its shortestPath List into a collection.
-            Solver solver = new Solver();
-            Collection<Configuration> shortestPath = solver.getShortestPath(clock);
+            Collection<Configuration> shortestPath;
+            if (args.length == 4) {
+                // meet in the middle between the start and the end hour
+                Solver solver = new Solver();
+                shortestPath = solver.getBidirectionalPath(clock);
+                System.out.println("Total configs: " + solver.getTotalConfigs());
+                System.out.println("Unique configs: " + solver.getUniqueConfigs());
+            } else {
+                // Solved puzzles are remembered for the rest of the program
+                SearchResult result = SolveCache.shared().solve(clock, Solver::new, SearchBudget.UNLIMITED);
+                shortestPath = result.getPath();
 
-            //Display both total configurations and unique configurations
-            System.out.println("Total configs: " + solver.getTotalConfigs());
-            System.out.println("Unique configs: " + solver.getUniqueConfigs());
+                //Display both total configurations and unique configurations
+                System.out.println("Total configs: " + result.getTotalConfigs());
+                System.out.println("Unique configs: " + result.getUniqueConfigs());
+            }
 
             //If the List constructed at the end of BFS is empty it means we did not find a match
             //Otherwise we want to print every step with its correlating ClockConfiguration
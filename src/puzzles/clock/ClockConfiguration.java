@@ -1,9 +1,15 @@
 package puzzles.clock;
 
 import solver.Configuration;
+import solver.EncodableConfiguration;
+import solver.Move;
+import solver.ReversibleConfiguration;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 
 /**
  * Class represents a ClockConfiguration. The configuration is made up of the total number of hours the clock has, each
@@ -11,18 +17,23 @@ import java.util.List;
  *
  * @author Miguel Reyes
  */
-public class ClockConfiguration implements Configuration {
+public class ClockConfiguration implements ReversibleConfiguration, EncodableConfiguration {
     private int hours;
     private int start;
     private int end;
-    private List<Configuration> neighbors;
 
     /**
      * @param hours - Total amount of hours starting in a clock
      * @param start - The hour we start at for current configuration
      * @param end   - the hour we want to get to.
+     * @throws IllegalArgumentException if start or end is not an hour from 1 to hours. Hours are their own codes, so a
+     *                                  hand at 0 would turn back to -1, which state tables use to mark empty slots
      */
     public ClockConfiguration(int hours, int start, int end) {
+        if (start < 1 || start > hours || end < 1 || end > hours) {
+            throw new IllegalArgumentException("Start and end must be hours from 1 to " + hours + ": " + start + ", "
+                    + end);
+        }
         this.hours = hours;
         this.start = start;
         this.end = end;
@@ -35,29 +46,102 @@ public class ClockConfiguration implements Configuration {
 
     @Override
     public List<Configuration> getNeighbors() {
-        this.neighbors = new ArrayList<>(2);
-        Configuration c1;
+        List<Configuration> neighbors = new ArrayList<>(2);
+        forEachNeighbor(neighbors::add);
+        return neighbors;
+    }
+
+    @Override
+    public void forEachNeighbor(Consumer<Configuration> action) {
+        forEachNeighborCode(hour -> action.accept(new ClockConfiguration(this.hours, (int) hour, this.end)));
+    }
+
+    @Override
+    public void forEachNeighborCode(LongConsumer action) {
         //1 is the smallester hour on the clock so its neighbor will 2 and the largest hour
         if (this.start == 1) {
-            c1 = new ClockConfiguration(this.hours, this.start + 1, this.end);
-            neighbors.add(c1);
-            c1 = new ClockConfiguration(this.hours, this.hours, this.end);
-            neighbors.add(c1);
-
+            action.accept(this.start + 1);
+            action.accept(this.hours);
         }
         //At the largest hour is neighbor is hours - 1 and 1
         else if (this.start == this.hours) {
-            c1 = new ClockConfiguration(this.hours, 1, this.end);
-            neighbors.add(c1);
-            c1 = new ClockConfiguration(this.hours, this.hours - 1, this.end);
-            neighbors.add(c1);
+            action.accept(1);
+            action.accept(this.hours - 1);
         } else {
-            c1 = new ClockConfiguration(this.hours, this.start + 1, this.end);
-            neighbors.add(c1);
-            c1 = new ClockConfiguration(this.hours, this.start - 1, this.end);
-            neighbors.add(c1);
+            action.accept(this.start + 1);
+            action.accept(this.start - 1);
+        }
+    }
+
+    /**
+     * The hand moves one hour per step in either direction, so the shorter way around the clock is never an
+     * overestimate.
+     *
+     * @return number of hours between start and end going the shorter way around
+     */
+    @Override
+    public int heuristic() {
+        int distance = Math.abs(this.start - this.end);
+        return Math.min(distance, this.hours - distance);
+    }
+
+    @Override
+    public Collection<ReversibleConfiguration> getGoals() {
+        return List.of(new ClockConfiguration(this.hours, this.end, this.end));
+    }
+
+    @Override
+    public Collection<ReversibleConfiguration> getPredecessors() {
+        //Turning the hand forward undoes turning it back and vice versa, so the predecessors are just the neighbors
+        List<ReversibleConfiguration> predecessors = new ArrayList<>(2);
+        for (Configuration c1 : getNeighbors()) {
+            predecessors.add((ReversibleConfiguration) c1);
         }
-        return this.neighbors;
+        return predecessors;
+    }
+
+    /**
+     * The hours and the goal never change during a search, so the current hour is all there is to encode.
+     *
+     * @return the current hour
+     */
+    @Override
+    public long encode() {
+        return this.start;
+    }
+
+    @Override
+    public boolean isSolution(long code) {
+        return code == this.end;
+    }
+
+    @Override
+    public ClockConfiguration decode(long code) {
+        return new ClockConfiguration(this.hours, (int) code, this.end);
+    }
+
+    /**
+     * Turning the hand forward goes up one hour, from the largest hour round to 1.
+     *
+     * @param next a neighbor of this configuration
+     * @return the hand turned forward or back
+     */
+    @Override
+    public Move describeMove(Configuration next) {
+        int forward = this.start == this.hours ? 1 : this.start + 1;
+        return new Move("hand", ((ClockConfiguration) next).start == forward ? "forward" : "back");
+    }
+
+    @Override
+    public Configuration applyMove(Move move) {
+        int hour = move.direction().equals("forward") ? (this.start == this.hours ? 1 : this.start + 1)
+                : (this.start == 1 ? this.hours : this.start - 1);
+        return new ClockConfiguration(this.hours, hour, this.end);
+    }
+
+    @Override
+    public String canonicalKey() {
+        return "Clock " + this.hours + " " + this.start + " " + this.end;
     }
 
     @Override
@@ -1,6 +1,7 @@
 package puzzles.lunarlanding.gui;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.geometry.Orientation;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -114,13 +115,14 @@ public class LunarLandingGUI extends Application
 
     /**
      * Updates the grid pane, Updating piece positions and clears top label
+     * @param snapshot - the model to show
      */
-    public void updateGrid(){
+    public void updateGrid(LunarLandingModel.Snapshot snapshot){
         this.announcement_label.setText(null);
         this.grid_pane.getChildren().clear();
-        int sizeX = this.model.getBoard().getNCols();
-        int sizeY = this.model.getBoard().getNRows();
-        Coordinates goal = this.model.getGoalLunar();
+        int sizeX = snapshot.board().getNCols();
+        int sizeY = snapshot.board().getNRows();
+        Coordinates goal = snapshot.goal();
         int goalX = goal.col();
         int goalY = goal.row();
         String tempName;
@@ -131,13 +133,13 @@ public class LunarLandingGUI extends Application
         for (int row = 0; row < sizeY; ++row) {
             for (int col = 0; col < sizeX; ++col) {
                 Coordinates tempPiece = new Coordinates(row, col);
-                if(this.model.getAllPieces().containsValue(tempPiece)){
+                if(snapshot.pieces().containsValue(tempPiece)){
                     Button temp = new Button();
-                    for(Map.Entry<String, Coordinates> entry : this.model.getAllPieces().entrySet()){
+                    for(Map.Entry<String, Coordinates> entry : snapshot.pieces().entrySet()){
                         if (Objects.equals(entry.getValue(), tempPiece)) {
                             tempName = entry.getKey();
                             temp.setGraphic(setPieceImage(tempName));
-                            if(tempPiece.equals(this.model.getGoalLunar())){
+                            if(tempPiece.equals(snapshot.goal())){
                                 temp.setOpacity(0.5);
                             }
                             String finalTempName = tempName;
@@ -161,12 +163,13 @@ public class LunarLandingGUI extends Application
      * Creates a grid pane to be displayed to the user. The Grid pane contains N buttons. Each button represents a piece
      * on the board. Fake buttons are placed on the board when a piece isn't at that position to maintain a square
      * or rectangle format. When clicked the piece will updateSelectedPiece to be used by "go".
+     * @param snapshot - the model to show
      */
-    public void gridDisplay() {
+    public void gridDisplay(LunarLandingModel.Snapshot snapshot) {
         this.grid_pane = new GridPane();
-        int sizeX = this.model.getBoard().getNCols();
-        int sizeY = this.model.getBoard().getNRows();
-        Coordinates goal = this.model.getGoalLunar();
+        int sizeX = snapshot.board().getNCols();
+        int sizeY = snapshot.board().getNRows();
+        Coordinates goal = snapshot.goal();
         int goalX = goal.col();
         int goalY = goal.row();
         String tempName;
@@ -177,13 +180,13 @@ public class LunarLandingGUI extends Application
         for (int row = 0; row < sizeY; ++row) {
             for (int col = 0; col < sizeX; ++col) {
                 Coordinates tempPiece = new Coordinates(row, col);
-                if(this.model.getAllPieces().containsValue(tempPiece)){
+                if(snapshot.pieces().containsValue(tempPiece)){
                     Button temp = new Button();
-                    for(Map.Entry<String, Coordinates> entry : this.model.getAllPieces().entrySet()){
+                    for(Map.Entry<String, Coordinates> entry : snapshot.pieces().entrySet()){
                         if (Objects.equals(entry.getValue(), tempPiece)) {
                             tempName = entry.getKey();
                             temp.setGraphic(setPieceImage(tempName));
-                            if(tempPiece.equals(this.model.getGoalLunar())){
+                            if(tempPiece.equals(snapshot.goal())){
                                 temp.setOpacity(0.5);
                             }
                             String finalTempName = tempName;
@@ -245,28 +248,23 @@ public class LunarLandingGUI extends Application
             if (selectedFile != null) {
                 filename[0] = selectedFile.toString();
             }
+            this.model.cancelSearches();
             this.model = new LunarLandingModel(filename[0]);
             this.model.addObserver( this );
-            updateGrid();
+            updateGrid(this.model.snapshot());
             mainStage.sizeToScene();
         });
 
         reloadButton.setOnAction((event) -> {
+            this.model.cancelSearches();
             this.model = new LunarLandingModel(filename[0]);
             this.model.addObserver( this );
-            updateGrid();
+            updateGrid(this.model.snapshot());
         });
 
         hintButton.setOnAction((event) -> {
-            int hintResult = this.model.hint();
             lastCommand = ("hint");
-            if (hintResult == 0) {
-                this.announcement_label.setText("Unsolvable board");
-            }
-            if(hintResult == 1){
-                this.announcement_label.setText("Current board is already solved");
-            }
-            updateLabel(this.announcement_label);
+            this.model.requestHint();
         });
     }
 
@@ -332,7 +330,7 @@ public class LunarLandingGUI extends Application
         mainStage = stage;
         stage.setTitle( "Lunar Landing" );
         BorderPane main_border_pane = new BorderPane();
-        gridDisplay();
+        gridDisplay(this.model.snapshot());
         main_border_pane.setCenter(this.grid_pane);
         this.announcement_label.setText("File loaded");
         this.announcement_label.setFont(new Font(18));
@@ -359,9 +357,45 @@ public class LunarLandingGUI extends Application
      */
     @Override
     public void update( LunarLandingModel lunarLandingModel, Object o ) {
-        updateGrid();
-        if((this.model.getGoalLunar().row() == this.model.getExplorer().row()) &&
-                (this.model.getGoalLunar().col() == this.model.getExplorer().col())){
+        // Hints are announced from the solver's thread, so the scene is only ever touched on the FX thread. The model
+        // is read here, while it is still locked by announce, rather than later on the FX thread.
+        LunarLandingModel.Snapshot snapshot = lunarLandingModel.snapshot();
+        if (Platform.isFxApplicationThread()) {
+            refresh(o, snapshot);
+        } else {
+            Platform.runLater(() -> refresh(o, snapshot));
+        }
+    }
+
+    /**
+     * Update the grid & labels after the model announces a change. Must be called on the FX thread.
+     * @param o - "hint" when a background hint has finished, "unsolvable" when a move left the goal out of reach
+     * @param snapshot - the model as it was when it announced the change
+     */
+    private void refresh( Object o, LunarLandingModel.Snapshot snapshot ) {
+        updateGrid(snapshot);
+        if ("unsolvable".equals(o)) {
+            this.announcement_label.setText("The goal can no longer be reached");
+            updateLabel(this.announcement_label);
+        }
+        if ("hint".equals(o)) {
+            int hintResult = snapshot.hintResult();
+            if (hintResult == 0) {
+                this.announcement_label.setText("Unsolvable board");
+            }
+            if(hintResult == 1){
+                this.announcement_label.setText("Current board is already solved");
+            }
+            if(hintResult == -1){
+                this.announcement_label.setText("No hint found within the search limits");
+            }
+            if(hintResult == -2){
+                this.announcement_label.setText("The hint search failed");
+            }
+            updateLabel(this.announcement_label);
+        }
+        if((snapshot.goal().row() == snapshot.explorer().row()) &&
+                (snapshot.goal().col() == snapshot.explorer().col())){
             if(!lastCommand.equals("hint")) {
                 this.announcement_label.setText("YOU WON!");
             }else{
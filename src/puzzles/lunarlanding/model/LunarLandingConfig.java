@@ -1,77 +1,267 @@
 package puzzles.lunarlanding.model;
 
 import solver.Configuration;
+import solver.EncodableConfiguration;
+import solver.Move;
 import util.Coordinates;
 import util.Grid;
 import java.util.*;
+import java.util.function.LongConsumer;
 
 
 /**
- * Class represents a LunarLandingConfig. The configuration is made up of the puzzles board, all pieces positions on
- * the board, the position of the explorer on the board and the position of the goal on the board.
+ * Class represents a LunarLandingConfig. The configuration is made up of only the square every piece is on, packed into
+ * an array in alphabetical order of the pieces' names. The board size, the names and the goal never change during a
+ * game, so every configuration of a game shares them, and the board itself is only built when it is asked for.
  * @author Bill Stephen
  * November 2021
  */
-public class LunarLandingConfig implements Configuration {
+public class LunarLandingConfig implements EncodableConfiguration {
 
     /**
-     * The current board of a LunarLandingConfig.
+     * The board size, piece names and goal position, shared by every configuration of a game - never changes.
      */
-    private Grid<String> board;
+    private final Layout layout;
     /**
-     * The all pieces on the current board of a LunarLandingConfig.
+     * The square index, row * columns + column, of every piece in the same order as the layout's names.
      */
-    private Map<String, Coordinates> allPiecePos;
+    private final int[] squares;
     /**
-     * The explorers current position on the board of a LunarLandingConfig.
+     * Directions a piece can slide in, the order getNeighbors tries them in.
      */
-    private Coordinates explorerPOS;
+    private static final int NORTH = 0, SOUTH = 1, EAST = 2, WEST = 3;
     /**
-     * The goal position on board of a LunarLandingConfig - never changes.
+     * Names of the directions, as used in moves.
      */
-    private final Coordinates goalPos;
+    private static final String[] DIRECTIONS = {"north", "south", "east", "west"};
+    /**
+     * Most rows or columns a board may have, so every row and column fits in one occupancy bitboard.
+     */
+    private static final int MAX_SIDE = Long.SIZE;
 
     /**
-     * @param board - Board that contains all pieces on it
+     * What every configuration of a game has in common.
+     */
+    private static final class Layout {
+        /**
+         * The size of the board.
+         */
+        private final int nRows, nCols;
+        /**
+         * The goal position on board and its square index.
+         */
+        private final Coordinates goalPos;
+        private final int goal;
+        /**
+         * The names of all pieces in alphabetical order, the order they are packed in by encode.
+         */
+        private final String[] names;
+        /**
+         * The index of the explorer in names, or -1 if the board has no explorer.
+         */
+        private final int explorer;
+        /**
+         * Number of bits needed to store the index of a square on the board.
+         */
+        private final int bits;
+        /**
+         * True if boards that only differ by which robot stands where count as the same board.
+         */
+        private final boolean interchangeable;
+        /**
+         * The same layout with interchangeable flipped.
+         */
+        private final Layout twin;
+
+        private Layout(int nRows, int nCols, Coordinates goalPos, String[] names) {
+            this.nRows = nRows;
+            this.nCols = nCols;
+            this.goalPos = goalPos;
+            this.goal = goalPos.row() * nCols + goalPos.col();
+            this.names = names;
+            this.explorer = Math.max(-1, Arrays.binarySearch(names, "E"));
+            this.bits = Math.max(1, 32 - Integer.numberOfLeadingZeros(nRows * nCols - 1));
+            this.interchangeable = false;
+            this.twin = new Layout(this);
+        }
+
+        /**
+         * @param twin - The layout to copy, with robots told apart
+         */
+        private Layout(Layout twin) {
+            this.nRows = twin.nRows;
+            this.nCols = twin.nCols;
+            this.goalPos = twin.goalPos;
+            this.goal = twin.goal;
+            this.names = twin.names;
+            this.explorer = twin.explorer;
+            this.bits = twin.bits;
+            this.interchangeable = true;
+            this.twin = twin;
+        }
+
+        /**
+         * @param other - Layout of another configuration
+         * @return True if both have the same board size, pieces and mode
+         */
+        private boolean matches(Layout other) {
+            return this == other || this.interchangeable == other.interchangeable && this.nRows == other.nRows
+                    && this.nCols == other.nCols && Arrays.equals(this.names, other.names);
+        }
+    }
+
+    /**
+     * @param board - Board that contains all pieces on it, only its size is used
      * @param allPiecePos - Position of all Robots and Explorer on board
-     * @param explorerPOS - Position of Explorer on board
+     * @param explorerPOS - Position of Explorer on board, the position of the piece named E
      * @param goalPos - Position of Lunar Landing on board
      */
     public LunarLandingConfig(Grid<String> board, Map<String, Coordinates> allPiecePos, Coordinates explorerPOS, Coordinates goalPos){
-        this.board = board;
-        this.allPiecePos = allPiecePos;
-        this.explorerPOS = explorerPOS;
-        this.goalPos = goalPos;
+        if (board.getNRows() > MAX_SIDE || board.getNCols() > MAX_SIDE) {
+            throw new IllegalArgumentException("Boards can be at most " + MAX_SIDE + " squares wide and tall");
+        }
+        this.layout = new Layout(board.getNRows(), board.getNCols(), goalPos,
+                new TreeSet<>(allPiecePos.keySet()).toArray(new String[0]));
+        this.squares = new int[this.layout.names.length];
+        for (int i = 0; i < this.squares.length; ++i) {
+            Coordinates piece = allPiecePos.get(this.layout.names[i]);
+            this.squares[i] = piece.row() * board.getNCols() + piece.col();
+        }
+    }
+
+    /**
+     * @param layout - What the configuration has in common with the rest of its game
+     * @param squares - Square index of every piece, owned by the new configuration
+     */
+    private LunarLandingConfig(Layout layout, int[] squares){
+        this.layout = layout;
+        this.squares = squares;
+    }
+
+    /**
+     * Returns this configuration with robots told apart or not. Only the explorer has to reach the goal, so two boards
+     * that only differ by which robot stands where have the same solutions. When robots are interchangeable such boards
+     * are equal and share one canonical code, which shrinks the breadth first Solver's and the DistanceTable's search by
+     * up to the number of orderings of the robots, while the paths they return still name the robots that moved.
+     * @param interchangeable - True to treat robots as interchangeable, false to tell them apart
+     * @return A configuration with the same pieces on the same squares in the asked for mode
+     */
+    public LunarLandingConfig withInterchangeableRobots(boolean interchangeable) {
+        if (this.layout.interchangeable == interchangeable) {
+            return this;
+        }
+        return new LunarLandingConfig(this.layout.twin, this.squares);
     }
 
+    /**
+     * Pieces get dense ids when a game is loaded, in alphabetical order of their names, and moves and solution checks
+     * only use the ids. The names are kept for display.
+     * @param name - Name of a piece
+     * @return The id of the piece, or -1 if the board has no piece by that name
+     */
+    public int getPieceId(String name) {
+        return Math.max(-1, Arrays.binarySearch(this.layout.names, name));
+    }
 
     /**
-     * Returns the board of the configuration
-     * @return The board of the configuration
+     * @param id - Id of a piece
+     * @return The name of the piece
+     */
+    public String getPieceName(int id) {
+        return this.layout.names[id];
+    }
+
+    /**
+     * @return The id of the explorer, or -1 if the board has no explorer
+     */
+    public int getExplorerId() {
+        return this.layout.explorer;
+    }
+
+    /**
+     * Slides a single piece.
+     * @param piece - Id of the piece to slide
+     * @param direction - "north", "south", "east" or "west"
+     * @return The configuration after the slide, or null if the piece can not slide that way
+     */
+    public LunarLandingConfig move(int piece, String direction) {
+        int way = Arrays.asList(DIRECTIONS).indexOf(direction);
+        if (piece < 0 || piece >= this.squares.length || way < 0) {
+            return null;
+        }
+        long[] rows = new long[this.layout.nRows];
+        long[] cols = new long[this.layout.nCols];
+        occupancy(rows, cols);
+        int stop = slide(rows, cols, this.squares[piece], way);
+        return stop < 0 ? null : moved(piece, stop);
+    }
+
+    /**
+     * @param square - Square index on the board
+     * @return The coordinates of the square
+     */
+    private Coordinates coordinates(int square) {
+        return new Coordinates(square / this.layout.nCols, square % this.layout.nCols);
+    }
+
+    /**
+     * Builds the board of the configuration, for showing it
+     * @return The board of the configuration, with every piece's name on its square and "" on empty squares
      */
     public Grid<String> getBoard() {
-        return this.board;
+        Grid<String> board = new Grid<>("", this.layout.nRows, this.layout.nCols);
+        for (int i = 0; i < this.squares.length; ++i) {
+            board.set(this.layout.names[i], coordinates(this.squares[i]));
+        }
+        return board;
     }
     /**
      * Returns all piece positions
-     * @return The all piece positions
+     * @return A new map of every piece's name to its position
      */
     public Map<String, Coordinates> getAllPiecePos() {
-        return this.allPiecePos;
+        Map<String, Coordinates> allPiecePos = new HashMap<>();
+        for (int i = 0; i < this.squares.length; ++i) {
+            allPiecePos.put(this.layout.names[i], coordinates(this.squares[i]));
+        }
+        return allPiecePos;
     }
     /**
      * Returns the explorer position
-     * @return The explorer position
+     * @return The explorer position, or null if the board has no explorer
      */
     public Coordinates getExplorerPOS() {
-        return this.explorerPOS;
+        return this.layout.explorer < 0 ? null : coordinates(this.squares[this.layout.explorer]);
     }
 
     /**
      * @return True is explorer and goal have the same coord, false otherwise.
      */
     @Override
-    public boolean isSolution() {return explorerPOS.equals(goalPos);}
+    public boolean isSolution() {
+        return this.layout.explorer >= 0 && this.squares[this.layout.explorer] == this.layout.goal;
+    }
+
+    /**
+     * Every move slides a piece along a single row or column, so the explorer needs at least one move when it shares a
+     * row or column with the goal and at least two when it shares neither.
+     * @return 0 at the goal or without an explorer, 1 when lined up with the goal, 2 otherwise
+     */
+    @Override
+    public int heuristic() {
+        if (this.layout.explorer < 0) {
+            return 0;
+        }
+        int explorer = this.squares[this.layout.explorer];
+        if (explorer == this.layout.goal) {
+            return 0;
+        }
+        int nCols = this.layout.nCols;
+        if (explorer / nCols == this.layout.goal / nCols || explorer % nCols == this.layout.goal % nCols) {
+            return 1;
+        }
+        return 2;
+    }
 
     /**
      * Finds the North, South, East, West neighbors of current piece. Checks for boarder and piece collision
@@ -79,118 +269,244 @@ public class LunarLandingConfig implements Configuration {
      */
     @Override
     public List<Configuration> getNeighbors() {
-        String[] alphabet = {"A", "B", "C", "D", "E", "F", "G", "H", "I", "J", "K", "L", "M", "N", "O", "P", "Q", "R", "S", "T", "U", "V", "W", "X", "Y", "Z"};
         List<Configuration> neighbors = new LinkedList<>();
+        long[] rows = new long[this.layout.nRows];
+        long[] cols = new long[this.layout.nCols];
+        occupancy(rows, cols);
 
-        Coordinates tempExplorer = this.explorerPOS;
-        for (String letter : alphabet) {
-            if (this.allPiecePos.get(letter) != null) {
-                int boardRows = board.getNRows();
-                int boardCols = board.getNCols();
-                Coordinates pieceCord = this.allPiecePos.get(letter);
-                int currentPieceX = pieceCord.col();
-                int currentPieceY = pieceCord.row();
-                //Check north for piece collision / border collision
-                int tempX = currentPieceX;
-                int tempY = currentPieceY;
-                boolean foundNorth = false;
-                while (0 < tempY && !foundNorth) {
-                    tempY--;
-                    Coordinates tempPiece = new Coordinates(tempY, tempX);
-                    if (!this.board.get(tempPiece).equals("")) {
-                        if (letter.equals("E")) {
-                            tempExplorer = new Coordinates(tempY + 1, tempX);
-                        }
-                        Coordinates returnPiece = new Coordinates(tempY + 1, tempX);
-                        foundNorth = true;
-                        if (!returnPiece.equals(pieceCord)) {
-                            Grid<String> tempBoard = new Grid<>(this.board);
-                            tempBoard.set("", currentPieceY, currentPieceX);
-                            tempBoard.set(letter, tempY + 1, tempX);
-                            Map<String, Coordinates> tempAllPiecePOS = new HashMap<>(this.allPiecePos);
-                            tempAllPiecePOS.remove(letter);
-                            tempAllPiecePOS.put(letter, returnPiece);
-                            neighbors.add(new LunarLandingConfig(tempBoard, tempAllPiecePOS, tempExplorer, this.goalPos));
-                        }
-                    }
+        for (int i = 0; i < this.squares.length; ++i) {
+            for (int direction = NORTH; direction <= WEST; ++direction) {
+                int stop = slide(rows, cols, this.squares[i], direction);
+                if (stop >= 0) {
+                    neighbors.add(moved(i, stop));
                 }
+            }
+        }
+        return neighbors;
+    }
 
-                //Check south for piece collision / border collision
-                tempY = currentPieceY;
-                boolean foundSouth = false;
-                while (tempY < boardRows - 1 && !foundSouth) {
-                    tempY++;
-                    Coordinates tempPiece = new Coordinates(tempY, tempX);
-                    if (!this.board.get(tempPiece).equals("")) {
-                        if (letter.equals("E")) {
-                            tempExplorer = new Coordinates(tempY - 1, tempX);
-                        }
-                        Coordinates returnPiece = new Coordinates(tempY - 1, tempX);
-                        foundSouth = true;
-                        if (!returnPiece.equals(pieceCord)) {
-                            Grid<String> tempBoard = new Grid<>(this.board);
-                            tempBoard.set("", currentPieceY, currentPieceX);
-                            tempBoard.set(letter, tempY - 1, tempX);
-                            Map<String, Coordinates> tempAllPiecePOS = new HashMap<>(this.allPiecePos);
-                            tempAllPiecePOS.remove(letter);
-                            tempAllPiecePOS.put(letter, returnPiece);
-                            neighbors.add(new LunarLandingConfig(tempBoard, tempAllPiecePOS, tempExplorer, this.goalPos));
-                        }
-                    }
-                }
+    /**
+     * Sets the occupancy bitboards: bit col of rows[row] and bit row of cols[col] are set when (row, col) holds a piece.
+     * @param rows - one empty bitboard per row of the board
+     * @param cols - one empty bitboard per column of the board
+     */
+    private void occupancy(long[] rows, long[] cols) {
+        for (int square : this.squares) {
+            int row = square / this.layout.nCols;
+            int col = square % this.layout.nCols;
+            rows[row] |= 1L << col;
+            cols[col] |= 1L << row;
+        }
+    }
 
+    /**
+     * Finds where a piece stops sliding one way. A piece stops next to the first piece in its way, and sliding off the
+     * board or not moving at all is not a move.
+     * @param rows - occupancy bitboard of every row
+     * @param cols - occupancy bitboard of every column
+     * @param square - square index of the sliding piece
+     * @param direction - NORTH, SOUTH, EAST or WEST
+     * @return - index of the square the piece stops on, or -1 if it can not slide that way
+     */
+    private int slide(long[] rows, long[] cols, int square, int direction) {
+        int nCols = this.layout.nCols;
+        int row = square / nCols;
+        int col = square % nCols;
+        boolean vertical = direction == NORTH || direction == SOUTH;
+        int stop = vertical ? slideStop(cols[col], row, direction == SOUTH)
+                : slideStop(rows[row], col, direction == EAST);
+        if (stop < 0) {
+            return -1;
+        }
+        return vertical ? stop * nCols + col : row * nCols + stop;
+    }
 
-                //Check east for piece collision / border collision
-                tempY = currentPieceY;
-                boolean foundEast = false;
-                while (tempX < boardCols - 1 && !foundEast) {
-                    tempX++;
-                    Coordinates tempPiece = new Coordinates(tempY, tempX);
-                    if (!this.board.get(tempPiece).equals("")) {
-                        if (letter.equals("E")) {
-                            tempExplorer = new Coordinates(tempY, tempX - 1);
-                        }
-                        Coordinates returnPiece = new Coordinates(tempY, tempX - 1);
-                        foundEast = true;
-                        if (!returnPiece.equals(pieceCord)) {
-                            Grid<String> tempBoard = new Grid<>(this.board);
-                            tempBoard.set("", currentPieceY, currentPieceX);
-                            tempBoard.set(letter, tempY, tempX - 1);
-                            Map<String, Coordinates> tempAllPiecePOS = new HashMap<>(this.allPiecePos);
-                            tempAllPiecePOS.remove(letter);
-                            tempAllPiecePOS.put(letter, returnPiece);
-                            neighbors.add(new LunarLandingConfig(tempBoard, tempAllPiecePOS, tempExplorer, this.goalPos));
-                        }
-                    }
+    /**
+     * Finds where a piece sliding along a single row or column stops, with one bit scan for the nearest piece in the way.
+     * @param line - occupancy of the row or column, bit i set when its i'th square holds a piece
+     * @param at - index of the sliding piece along the line
+     * @param forward - True to slide towards higher indices (south or east), false for lower ones (north or west)
+     * @return - index along the line the piece stops at, or -1 if nothing stops it or it can not move
+     */
+    private static int slideStop(long line, int at, boolean forward) {
+        long ahead = forward ? line & (-2L << at) : line & ((1L << at) - 1);
+        if (ahead == 0) {
+            return -1;
+        }
+        int stop = forward ? Long.numberOfTrailingZeros(ahead) - 1 : Long.SIZE - Long.numberOfLeadingZeros(ahead);
+        return stop == at ? -1 : stop;
+    }
+
+    /**
+     * @param piece - index of the piece that slid
+     * @param stop - square the piece stopped on
+     * @return - the configuration after the slide
+     */
+    private LunarLandingConfig moved(int piece, int stop) {
+        int[] newSquares = this.squares.clone();
+        newSquares[piece] = stop;
+        return new LunarLandingConfig(this.layout, newSquares);
+    }
+
+    /**
+     * @return True if every piece's square index fits in a non-negative long
+     */
+    @Override
+    public boolean isEncodable() {
+        return this.squares.length * this.layout.bits <= 63;
+    }
+
+    /**
+     * Packs the square index of every piece, in alphabetical order of the pieces' names.
+     * @return Code for the positions of all pieces
+     */
+    @Override
+    public long encode() {
+        long code = 0;
+        for (int square : this.squares) {
+            code = (code << this.layout.bits) | square;
+        }
+        return code;
+    }
+
+    /**
+     * Works out the same moves as getNeighbors from the occupancy bitboards, handing over only the code of each result.
+     * Pieces are visited in alphabetical order and each one tries north, south, east then west.
+     * @param action - What to do with each neighbor's code
+     */
+    @Override
+    public void forEachNeighborCode(LongConsumer action) {
+        int bits = this.layout.bits;
+        long[] rows = new long[this.layout.nRows];
+        long[] cols = new long[this.layout.nCols];
+        occupancy(rows, cols);
+        long code = encode();
+        for (int i = 0; i < this.squares.length; ++i) {
+            int shift = bits * (this.squares.length - 1 - i);
+            long without = code - ((long) this.squares[i] << shift);
+            for (int direction = NORTH; direction <= WEST; ++direction) {
+                int stop = slide(rows, cols, this.squares[i], direction);
+                if (stop >= 0) {
+                    action.accept(without + ((long) stop << shift));
                 }
+            }
+        }
+    }
 
+    /**
+     * @param code - Code produced by encode on a configuration of the same board
+     * @return - True if the explorer's square in the code is the goal, false otherwise
+     */
+    @Override
+    public boolean isSolution(long code) {
+        int explorer = this.layout.explorer;
+        if (explorer < 0) {
+            return false;
+        }
+        int bits = this.layout.bits;
+        long square = (code >>> (bits * (this.squares.length - 1 - explorer))) & ((1L << bits) - 1);
+        return square == this.layout.goal;
+    }
 
-                //Check west for piece collision / border collision
-                tempX = currentPieceX;
-                boolean foundWest = false;
-                while ( 0 < tempX && !foundWest) {
-                    tempX--;
-                    Coordinates tempPiece = new Coordinates(tempY, tempX);
-                    if (!this.board.get(tempPiece).equals("")) {
-                        if (letter.equals("E")) {
-                            tempExplorer = new Coordinates(tempY, tempX + 1);
-                        }
-                        Coordinates returnPiece = new Coordinates(tempY, tempX + 1);
-                        foundWest = true;
-                        if (!returnPiece.equals(pieceCord)) {
-                            Grid<String> tempBoard = new Grid<>(this.board);
-                            tempBoard.set("", currentPieceY, currentPieceX);
-                            tempBoard.set(letter, tempY, tempX + 1);
-                            Map<String, Coordinates> tempAllPiecePOS = new HashMap<>(this.allPiecePos);
-                            tempAllPiecePOS.remove(letter);
-                            tempAllPiecePOS.put(letter, returnPiece);
-                            neighbors.add(new LunarLandingConfig(tempBoard, tempAllPiecePOS, tempExplorer, this.goalPos));
-                        }
-                    }
+    /**
+     * Sorts the robots' squares within the code, leaving the explorer's where it is, so every ordering of the robots
+     * over the same squares gets the same code. Codes are left alone when robots are told apart.
+     * @param code - Code produced by encode on a configuration of the same board
+     * @return - The canonical code
+     */
+    @Override
+    public long canonicalize(long code) {
+        if (!this.layout.interchangeable) {
+            return code;
+        }
+        int bits = this.layout.bits;
+        long mask = (1L << bits) - 1;
+        int pieces = this.squares.length;
+        // swap robots into order in place, each pass leaving the smallest remaining square at i
+        for (int i = 0; i < pieces; ++i) {
+            if (i == this.layout.explorer) {
+                continue;
+            }
+            int shiftI = bits * (pieces - 1 - i);
+            for (int j = i + 1; j < pieces; ++j) {
+                if (j == this.layout.explorer) {
+                    continue;
+                }
+                int shiftJ = bits * (pieces - 1 - j);
+                long a = (code >>> shiftI) & mask;
+                long b = (code >>> shiftJ) & mask;
+                if (a > b) {
+                    code += ((b - a) << shiftI) + ((a - b) << shiftJ);
                 }
             }
         }
-        return neighbors;
+        return code;
+    }
+
+    /**
+     * @param code - Code produced by encode on a configuration of the same board
+     * @return - Configuration with every piece placed at the square stored in the code
+     */
+    @Override
+    public LunarLandingConfig decode(long code) {
+        int bits = this.layout.bits;
+        long mask = (1L << bits) - 1;
+        int[] newSquares = new int[this.squares.length];
+        for (int i = newSquares.length - 1; i >= 0; --i) {
+            newSquares[i] = (int) (code & mask);
+            code >>>= bits;
+        }
+        return new LunarLandingConfig(this.layout, newSquares);
+    }
+
+    /**
+     * Exactly one piece slides on every move, so the move is that piece and the way it went.
+     * @param next - a neighbor of this configuration
+     * @return - the piece that slid and north, south, east or west
+     */
+    @Override
+    public Move describeMove(Configuration next) {
+        int[] after = ((LunarLandingConfig) next).squares;
+        int nCols = this.layout.nCols;
+        for (int i = 0; i < this.squares.length; ++i) {
+            int from = this.squares[i];
+            int to = after[i];
+            if (from != to) {
+                int direction = from / nCols == to / nCols ? (to > from ? EAST : WEST) : (to > from ? SOUTH : NORTH);
+                return new Move(this.layout.names[i], DIRECTIONS[direction]);
+            }
+        }
+        throw new IllegalArgumentException(next + " is not a neighbor");
+    }
+
+    /**
+     * Slides the one piece the move names, without working out any other neighbor.
+     * @param move - a move described by describeMove
+     * @return - the configuration after the move
+     */
+    @Override
+    public Configuration applyMove(Move move) {
+        LunarLandingConfig next = move(getPieceId(move.piece()), move.direction());
+        if (next == null) {
+            throw new IllegalArgumentException(move + " can not be made");
+        }
+        return next;
+    }
+
+    /**
+     * @return The board size, goal and every piece's position in name order, which together identify the puzzle exactly
+     */
+    @Override
+    public String canonicalKey() {
+        StringBuilder key = new StringBuilder("LunarLanding ");
+        key.append(this.layout.nRows).append(' ').append(this.layout.nCols).append(' ').append(this.layout.goalPos);
+        for (int i = 0; i < this.squares.length; ++i) {
+            key.append(' ').append(this.layout.names[i]).append(coordinates(this.squares[i]));
+        }
+        if (this.layout.interchangeable) {
+            key.append(" interchangeable");
+        }
+        return key.toString();
     }
 
     /**
@@ -198,7 +514,7 @@ public class LunarLandingConfig implements Configuration {
      */
     @Override
     public String toString() {
-        Grid<String> newBoard = new Grid<>(this.board);
+        Grid<String> newBoard = getBoard();
         StringBuilder result = new StringBuilder();
         for (int row = 0; row < newBoard.getNRows() + 2; ++row) {
             result.append("\n");
@@ -219,10 +535,10 @@ public class LunarLandingConfig implements Configuration {
                     if (newBoard.get(currentCoord).equals("")) {
                         newBoard.set("_", currentCoord);
                     }
-                    if (currentCoord.equals(this.goalPos) && !newBoard.get(currentCoord).equals("_")) {
+                    if (currentCoord.equals(this.layout.goalPos) && !newBoard.get(currentCoord).equals("_")) {
                         newBoard.set("!" + newBoard.get(currentCoord), currentCoord);
                     } else {
-                        if (currentCoord.equals(this.goalPos)) {
+                        if (currentCoord.equals(this.layout.goalPos)) {
                             newBoard.set(" !", currentCoord);
                         }
                     }
@@ -238,24 +554,43 @@ public class LunarLandingConfig implements Configuration {
         return result.toString();
     }
 
+    /**
+     * @return - The squares of every piece, with the robots' squares sorted when robots are interchangeable
+     */
+    private int[] canonicalSquares() {
+        if (!this.layout.interchangeable) {
+            return this.squares;
+        }
+        int explorer = this.layout.explorer;
+        int[] canonical = this.squares.clone();
+        if (explorer >= 0) {
+            // move the explorer to the front so only the robots behind it are sorted
+            canonical[explorer] = canonical[0];
+            canonical[0] = this.squares[explorer];
+        }
+        Arrays.sort(canonical, explorer >= 0 ? 1 : 0, canonical.length);
+        return canonical;
+    }
+
     /**
      * @param obj - other instance of LunarLandingConfig
-     * @return - True if explorerPOS are the same and board is the same between the two instances, false otherwise
+     * @return - True if both have the same board size, mode and pieces on the same squares, where any robot may stand
+     * in for another when robots are interchangeable, false otherwise
      */
     @Override
     public boolean equals(Object obj) {
         boolean result = false;
-        if (obj instanceof LunarLandingConfig otherLunar) {
-            result = this.explorerPOS.equals(otherLunar.explorerPOS) && this.board.equals(otherLunar.board);
+        if (obj instanceof LunarLandingConfig otherLunar && this.layout.matches(otherLunar.layout)) {
+            result = Arrays.equals(canonicalSquares(), otherLunar.canonicalSquares());
         }
         return result;
     }
 
     /**
-     * @return - Hashcode
+     * @return - Hashcode of the pieces' squares
      */
     @Override
     public int hashCode() {
-        return this.explorerPOS.hashCode() + this.board.hashCode();
+        return Arrays.hashCode(canonicalSquares());
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,12 @@
 package puzzles.lunarlanding.model;
 
+import solver.CancellationToken;
 import solver.Configuration;
+import solver.DistanceTable;
+import solver.SearchBudget;
+import solver.SearchResult;
+import solver.SolveCache;
+import solver.SolveService;
 import solver.Solver;
 import util.Coordinates;
 import util.Grid;
@@ -19,7 +25,37 @@ import java.util.*;
 public class LunarLandingModel{
 
     /**
-     * The current board of a LunarLandingConfig.
+     * Limits on the search behind a hint, so a huge board gives up rather than freezing the game or exhausting memory
+     */
+    private static final SearchBudget HINT_BUDGET =
+            SearchBudget.UNLIMITED.withMaxMillis(10_000).withMaxVisitedBytes(512L << 20);
+
+    /**
+     * Runs hint searches in the background for every Lunar Landing model. The thread is shared rather than one per
+     * model: the GUI and PTUI cancel a model's searches before replacing it, and every search is bounded by
+     * HINT_BUDGET, so a stale search holds the thread for at most a few seconds. A thread per model would outlive the
+     * model.
+     */
+    private static final SolveService HINTS = new SolveService(1, 4, SolveCache.shared());
+
+    /**
+     * Builds distance tables in the background, apart from the hint searches so a hint never waits behind a table
+     */
+    private static final SolveService TABLES = new SolveService(1, 4);
+
+    /**
+     * Boards with more reachable configurations than this get no distance table, and their hints are searched for.
+     * A board over the limit, such as lula-a, is given up on after a few tens of milliseconds.
+     */
+    private static final int MAX_TABLE_STATES = 1 << 16;
+
+    /**
+     * The current configuration, or null if the board could not be loaded. Pieces are told apart by the dense ids it
+     * gave them at load time.
+     */
+    private LunarLandingConfig current;
+    /**
+     * The current board of a LunarLandingConfig, built from the current configuration for display.
      */
     private Grid<String> board= new Grid<>("", 0, 0);
     /**
@@ -38,6 +74,29 @@ public class LunarLandingModel{
      * Boolean that indicates if a move was valid
      */
     private boolean legalMove = true;
+    /**
+     * Result of the latest hint, as returned by hint
+     */
+    private int hintResult;
+    /**
+     * Cancels the hint search running in the background, or null if there is none
+     */
+    private CancellationToken pendingHint;
+    /**
+     * Path of the latest successful hint search, and the index of every configuration on it. While the board stays on
+     * this path the next hint is read from it instead of searching again.
+     */
+    private List<Configuration> hintPath = new ArrayList<>();
+    private final Map<Configuration, Integer> hintIndex = new HashMap<>();
+    /**
+     * Moves to the goal from every board reachable from the loaded one, or null while it is being built or if there
+     * are too many
+     */
+    private DistanceTable distances;
+    /**
+     * Cancels the distance table being built in the background, or null if there is none
+     */
+    private CancellationToken pendingTable;
 
     /**
      * Those objects that are watching this object's every move
@@ -52,24 +111,61 @@ public class LunarLandingModel{
         try (BufferedReader inputReader = new BufferedReader(new FileReader(file))) {
             String line = inputReader.readLine();
             String[] fields = line.split("\\s+");
-            int boardsRow = Integer.parseInt(fields[0]);
-            int boardsCol = Integer.parseInt(fields[1]);
-            this.board = new Grid<>("", boardsRow, boardsCol);
+            Grid<String> size = new Grid<>("", Integer.parseInt(fields[0]), Integer.parseInt(fields[1]));
             this.goalLunar = new Coordinates(Integer.parseInt(fields[2]), Integer.parseInt(fields[3]));
-            Coordinates pieceCoord;
+            Map<String, Coordinates> pieces = new HashMap<>();
             while ((line = inputReader.readLine()) != null) {
                 if (line.isEmpty()) {break;}
                 fields = line.split("\\s+");
-                if(fields[0].equals("E")){
-                    this.explorer = new Coordinates(Integer.parseInt(fields[1]), Integer.parseInt(fields[2]));
-                }
-                this.board.set(fields[0], Integer.parseInt(fields[1]), Integer.parseInt(fields[2]));
-                pieceCoord = new Coordinates(Integer.parseInt(fields[1]), Integer.parseInt(fields[2]));
-                this.allPiecePos.put(fields[0],pieceCoord);
+                pieces.put(fields[0], new Coordinates(Integer.parseInt(fields[1]), Integer.parseInt(fields[2])));
             }
+            // the configuration gives every piece its id, after which the letters are only used for display
+            setCurrent(new LunarLandingConfig(size, pieces, pieces.get("E"), this.goalLunar));
         } catch (IOException e) {
         }
-        announce();
+        if (this.current != null && this.current.getExplorerId() >= 0) {
+            // robots are interchangeable, so the table holds one entry per set of squares they stand on
+            LunarLandingConfig start = this.current.withInterchangeableRobots(true);
+            // built in the background so loading never waits on it, hints search as usual until it is ready
+            CancellationToken token = new CancellationToken();
+            this.pendingTable = token;
+            TABLES.run(() -> DistanceTable.build(start, MAX_TABLE_STATES, token))
+                    .whenComplete((table, failure) -> useDistances(token, table));
+        }
+        announce(null);
+    }
+
+    /**
+     * Makes a configuration the current one, and updates the board, explorer and pieces shown from it.
+     * @param config the new current configuration
+     */
+    private void setCurrent(LunarLandingConfig config) {
+        this.current = config;
+        this.board = config.getBoard();
+        this.explorer = config.getExplorerPOS();
+        this.allPiecePos = config.getAllPiecePos();
+    }
+
+    /**
+     * What an observer shows, read together so it all comes from the same moment.
+     * @param board      the current board
+     * @param pieces     every piece's name and position
+     * @param explorer   the explorer's position
+     * @param goal       the goal position
+     * @param hintResult the result of the latest hint
+     */
+    public record Snapshot(Grid<String> board, Map<String, Coordinates> pieces, Coordinates explorer,
+                           Coordinates goal, int hintResult) {
+    }
+
+    /**
+     * Reads the state an observer shows. Hints change the model from a background thread, so an observer that shows
+     * the model later, on another thread, takes the snapshot in its update, while announce still holds the lock. The
+     * board and pieces are built anew for every configuration and never changed, so they can be shared.
+     * @return the current state
+     */
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(this.board, this.allPiecePos, this.explorer, this.goalLunar, this.hintResult);
     }
 
      /**
@@ -107,157 +203,212 @@ public class LunarLandingModel{
     }
 
     /**
-     * Moves the selected piece. Moves the piece north, east, south or west.
+     * Gets the result of the latest hint, the same value hint returns, or -2 if a background hint search failed
+     * @return Result of the latest hint
      */
-    public boolean go(String direction, Coordinates piece, String name) {
-        Coordinates tempExplorer = this.explorer;
-        int boardRows = this.board.getNRows();
-        int boardCols = this.board.getNCols();
-        int tempPieceX;
-        int tempPieceY;
+    public int getHintResult() {
+        return this.hintResult;
+    }
+
+    /**
+     * Moves the selected piece. Moves the piece north, east, south or west. A move the distance table knows leaves the
+     * goal out of reach announces "unsolvable".
+     * @param direction "north", "east", "south" or "west"
+     * @param piece where the piece is, kept for the views that call this
+     * @param name name of the piece
+     * @return true if the piece moved
+     */
+    public synchronized boolean go(String direction, Coordinates piece, String name) {
+        cancelHint();
         legalMove = false;
-        //Check north for piece collision / border collision
-        if(direction.equals("north")) {
-            tempPieceX = piece.col();
-            tempPieceY = piece.row();
-            boolean foundNorth = false;
-            while (0 < tempPieceY && !foundNorth) {
-                tempPieceY--;
-                Coordinates tempPiece = new Coordinates(tempPieceY, tempPieceX);
-                if (!this.board.get(tempPiece).equals("")) {
-                    if (name.equals("E")) {
-                        tempExplorer = new Coordinates(tempPieceY + 1, tempPieceX);
-                    }
-                    Coordinates returnPiece = new Coordinates(tempPieceY + 1, tempPieceX);
-                    foundNorth = true;
-                    if (!returnPiece.equals(piece)) {
-                        Grid<String> tempBoard = new Grid<>(this.board);
-                        tempBoard.set("", piece.row(), piece.col());
-                        tempBoard.set(name, tempPieceY + 1, tempPieceX);
-                        Map<String, Coordinates> tempAllPiecePOS = new HashMap<>(this.allPiecePos);
-                        tempAllPiecePOS.remove(name);
-                        tempAllPiecePOS.put(name, returnPiece);
-                        legalMove = true;
-                        this.board = tempBoard;
-                        this.explorer = tempExplorer;
-                        this.allPiecePos = tempAllPiecePOS;
-                        announce();
-                    }
-                }
-            }
+        if (this.current == null) {
+            return legalMove;
+        }
+        LunarLandingConfig next = this.current.move(this.current.getPieceId(name), direction);
+        if (next != null) {
+            legalMove = true;
+            setCurrent(next);
+            announce(isDeadEnd(next) ? "unsolvable" : null);
         }
+        return legalMove;
+    }
 
-        //Check east for piece collision / border collision
-        if(direction.equals("east")) {
-            tempPieceX = piece.col();
-            tempPieceY = piece.row();
-            boolean foundEast = false;
-            while (tempPieceX < boardCols - 1 && !foundEast) {
-                tempPieceX++;
-                Coordinates tempPiece = new Coordinates(tempPieceY, tempPieceX);
-                if (!this.board.get(tempPiece).equals("")) {
-                    if (name.equals("E")) {
-                        tempExplorer = new Coordinates(tempPieceY, tempPieceX - 1);
-                    }
-                    Coordinates returnPiece = new Coordinates(tempPieceY, tempPieceX - 1);
-                    foundEast = true;
-                    if (!returnPiece.equals(piece)) {
-                        Grid<String> tempBoard = new Grid<>(this.board);
-                        tempBoard.set("", piece.row(), piece.col());
-                        tempBoard.set(name, tempPieceY, tempPieceX - 1);
-                        Map<String, Coordinates> tempAllPiecePOS = new HashMap<>(this.allPiecePos);
-                        tempAllPiecePOS.remove(name);
-                        tempAllPiecePOS.put(name, returnPiece);
-                        legalMove = true;
-                        this.board = tempBoard;
-                        this.explorer = tempExplorer;
-                        this.allPiecePos = tempAllPiecePOS;
-                        announce();
-                    }
-                }
-            }
+    /**
+     * Takes in current boards config and uses LunarLanding BFS to find next move towards solution.
+     * @return the length of the path found, 0 if the board is unsolvable, or -1 if the search ran out of its budget
+     */
+    public synchronized int hint() {
+        cancelHint();
+        if (this.current == null) {
+            this.hintResult = 0;
+            return this.hintResult;
+        }
+        LunarLandingConfig lunarLanding = this.current;
+        List<Configuration> knownPath = knownPath(lunarLanding);
+        boolean moved = knownPath != null ? usePath(knownPath) : useHint(SolveCache.shared().solve(
+                lunarLanding.withInterchangeableRobots(true), LunarLandingModel::hintSolver, HINT_BUDGET));
+        if (moved) {
+            announce(null);
         }
+        return this.hintResult;
+    }
 
-        //Check south for piece collision / border collision
-        if(direction.equals("south")) {
-            tempPieceX = piece.col();
-            tempPieceY = piece.row();
-            boolean foundSouth = false;
-            while (tempPieceY < boardRows - 1 && !foundSouth) {
-                tempPieceY++;
-                Coordinates tempPiece = new Coordinates(tempPieceY, tempPieceX);
-                if (!this.board.get(tempPiece).equals("")) {
-                    if (name.equals("E")) {
-                        tempExplorer = new Coordinates(tempPieceY - 1, tempPieceX);
-                    }
-                    Coordinates returnPiece = new Coordinates(tempPieceY - 1, tempPieceX);
-                    foundSouth = true;
-                    if (!returnPiece.equals(piece)) {
-                        Grid<String> tempBoard = new Grid<>(this.board);
-                        tempBoard.set("", piece.row(), piece.col());
-                        tempBoard.set(name, tempPieceY - 1, tempPieceX);
-                        Map<String, Coordinates> tempAllPiecePOS = new HashMap<>(this.allPiecePos);
-                        tempAllPiecePOS.remove(name);
-                        tempAllPiecePOS.put(name, returnPiece);
-                        legalMove = true;
-                        this.board = tempBoard;
-                        this.explorer = tempExplorer;
-                        this.allPiecePos = tempAllPiecePOS;
-                        announce();
-                    }
-                }
-            }
+    /**
+     * Starts looking for the next move in the background and returns right away. Once the search ends the move is made
+     * and "hint" is announced from the search's thread, with the result in getHintResult. If a piece moves or another
+     * hint is asked for in the meantime the search is cancelled and its result dropped. If the search could not be run
+     * or threw, "hint" is announced with a result of -2.
+     */
+    public synchronized void requestHint() {
+        cancelHint();
+        CancellationToken token = new CancellationToken();
+        LunarLandingConfig lunarLanding = this.current;
+        if (lunarLanding == null) {
+            this.hintResult = 0;
+            announce("hint");
+            return;
         }
+        List<Configuration> knownPath = knownPath(lunarLanding);
+        if (knownPath != null) {
+            usePath(knownPath);
+            announce("hint");
+            return;
+        }
+        this.pendingHint = token;
+        HINTS.submit(LunarLandingModel::hintSolver, lunarLanding.withInterchangeableRobots(true),
+                HINT_BUDGET.withToken(token))
+                .whenComplete((result, failure) -> finishHint(lunarLanding, token, failure == null ? result : null));
+    }
 
-        //Check west for piece collision / border collision
-        if(direction.equals("west")) {
-            tempPieceX = piece.col();
-            tempPieceY = piece.row();
-            boolean foundWest = false;
-            while (0 < tempPieceX && !foundWest) {
-                tempPieceX--;
-                Coordinates tempPiece = new Coordinates(tempPieceY, tempPieceX);
-                if (!this.board.get(tempPiece).equals("")) {
-                    if (name.equals("E")) {
-                        tempExplorer = new Coordinates(tempPieceY, tempPieceX + 1);
-                    }
-                    Coordinates returnPiece = new Coordinates(tempPieceY, tempPieceX + 1);
-                    foundWest = true;
-                    if (!returnPiece.equals(piece)) {
-                        Grid<String> tempBoard = new Grid<>(this.board);
-                        tempBoard.set("", piece.row(), piece.col());
-                        tempBoard.set(name, tempPieceY, tempPieceX + 1);
-                        Map<String, Coordinates> tempAllPiecePOS = new HashMap<>(this.allPiecePos);
-                        tempAllPiecePOS.remove(name);
-                        tempAllPiecePOS.put(name, returnPiece);
-                        legalMove = true;
-                        this.board = tempBoard;
-                        this.explorer = tempExplorer;
-                        this.allPiecePos = tempAllPiecePOS;
-                        announce();
-                    }
-                }
-            }
+    /**
+     * Cancels the hint search running in the background, if there is one.
+     */
+    public synchronized void cancelHint() {
+        if (this.pendingHint != null) {
+            this.pendingHint.cancel();
+            this.pendingHint = null;
         }
-        return legalMove;
     }
 
     /**
-     * Takes in current boards config and uses LunarLanding BFS to find next move towards solution.
+     * Uses the result of a background hint search, unless the board changed since it started.
+     * @param start configuration the search started from
+     * @param token token of the search
+     * @param result result of the search, or null if it failed
      */
-    public int hint() {
-        Configuration lunarLanding = new LunarLandingConfig(this.board, this.allPiecePos, this.explorer, this.goalLunar);
-        //Create an instance of a Solver and store its shortestPath List into a collection.
+    private synchronized void finishHint(LunarLandingConfig start, CancellationToken token, SearchResult result) {
+        if (token.isCancelled() || start != this.current) {
+            return;
+        }
+        this.pendingHint = null;
+        if (result == null) {
+            this.hintResult = -2;
+        } else {
+            useHint(result);
+        }
+        announce("hint");
+    }
+
+    /**
+     * Cancels the hint search and the distance table build running in the background, for a model that is being
+     * replaced by one of another board.
+     */
+    public synchronized void cancelSearches() {
+        cancelHint();
+        if (this.pendingTable != null) {
+            this.pendingTable.cancel();
+            this.pendingTable = null;
+        }
+    }
+
+    /**
+     * Switches hints over to the finished distance table, unless the build was cancelled.
+     * @param token token of the build
+     * @param table the table, or null if the board has too many configurations or the build failed
+     */
+    private synchronized void useDistances(CancellationToken token, DistanceTable table) {
+        if (token == this.pendingTable) {
+            this.pendingTable = null;
+            this.distances = table;
+        }
+    }
+
+    /**
+     * Checks with the distance table whether a board can no longer reach the goal. Without a table, or for a board
+     * the table does not hold, the goal is assumed to be in reach.
+     * @param lunarLanding configuration of the board
+     * @return true if the goal can not be reached from the board
+     */
+    private boolean isDeadEnd(LunarLandingConfig lunarLanding) {
+        return this.distances != null && this.distances.contains(lunarLanding)
+                && this.distances.getDistance(lunarLanding.encode()) == DistanceTable.NO_PATH;
+    }
+
+    /**
+     * Creates the solver behind a hint
+     * @return the solver
+     */
+    private static Solver hintSolver() {
         Solver solver = new Solver();
-        Collection<Configuration> shortestPath = solver.getShortestPath(lunarLanding);
-        LinkedList <Configuration> solutionList = new LinkedList<>(shortestPath);
+        // only the next move is needed, so stop as soon as a solution is generated
+        solver.setGoalOnGeneration(true);
+        return solver;
+    }
+
+    /**
+     * Finds a shortest path from a board without searching, either from the distance table or from the cached hint
+     * path. Every board on a shortest path has the rest of that path as a shortest path of its own.
+     * @param lunarLanding configuration of the current board
+     * @return path from the current board, or null if a search is needed
+     */
+    private List<Configuration> knownPath(LunarLandingConfig lunarLanding) {
+        if (this.distances != null && this.distances.contains(lunarLanding)) {
+            return this.distances.getShortestPath(lunarLanding);
+        }
+        Integer index = this.hintIndex.get(lunarLanding);
+        if (index == null) {
+            return null;
+        }
+        return this.hintPath.subList(index, this.hintPath.size());
+    }
+
+    /**
+     * Makes the next move of a hint search's path and records the hint result. A path found replaces the cached one.
+     * @param result result of a search from the current board with interchangeable robots
+     * @return true if a piece was moved
+     */
+    private boolean useHint(SearchResult result) {
+        if (result.getStatus().isStopped()) {
+            this.hintResult = -1;
+            return false;
+        }
+        // the path's boards tell robots apart again, so the cached path only matches the boards really on it
+        List<Configuration> solutionList = new ArrayList<>();
+        for (Configuration step : result.getPath()) {
+            solutionList.add(((LunarLandingConfig) step).withInterchangeableRobots(false));
+        }
+        if (!solutionList.isEmpty()) {
+            this.hintPath = new ArrayList<>(solutionList);
+            this.hintIndex.clear();
+            for (int i = 0; i < this.hintPath.size(); i++) {
+                this.hintIndex.put(this.hintPath.get(i), i);
+            }
+        }
+        return usePath(solutionList);
+    }
+
+    /**
+     * Makes the next move of a path from the current board and records the hint result.
+     * @param solutionList path from the current board, empty if there is none
+     * @return true if a piece was moved
+     */
+    private boolean usePath(List<Configuration> solutionList) {
+        this.hintResult = solutionList.size();
         if(solutionList.size() > 1) {
-            this.board = ((LunarLandingConfig) solutionList.get(1)).getBoard();
-            this.explorer = ((LunarLandingConfig) solutionList.get(1)).getExplorerPOS();
-            this.allPiecePos = ((LunarLandingConfig) solutionList.get(1)).getAllPiecePos();
-            announce();
+            setCurrent((LunarLandingConfig) solutionList.get(1));
+            return true;
         }
-        return solutionList.size();
+        return false;
     }
 
 
@@ -272,11 +423,11 @@ public class LunarLandingModel{
     }
 
     /**
-     * Announce to observers the model has changed;
+     * Announce to observers the model has changed; observers are told while the model is locked
      */
-    private void announce() {
+    private synchronized void announce(String arg) {
         for ( var obs : this.observers ) {
-            obs.update( this, null);
+            obs.update( this, arg);
         }
     }
 
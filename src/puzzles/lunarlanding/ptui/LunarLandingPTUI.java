@@ -63,6 +63,7 @@ public class LunarLandingPTUI implements Observer<LunarLandingModel, Object > {
                             String[] tempFileName = words[1].split("\\.");
                             if(tempFileName[1].equals("txt")) {
                                 filename[0] = words[1];
+                                this.model.cancelSearches();
                                 this.model = new LunarLandingModel(filename[0]);
                                 initializeView();
                             } else {
@@ -74,6 +75,7 @@ public class LunarLandingPTUI implements Observer<LunarLandingModel, Object > {
                     }
                     //Restarts current puzzle
                     case "reload" -> {
+                        this.model.cancelSearches();
                         this.model = new LunarLandingModel(filename[0]);
                         initializeView();
                     }
@@ -125,6 +127,9 @@ public class LunarLandingPTUI implements Observer<LunarLandingModel, Object > {
                         if(hint == 1){
                             System.out.println("Current board is already solved");
                         }
+                        if(hint == -1){
+                            System.out.println("No hint found within the search limits");
+                        }
                     }
                     //Displays board
                     case "show" -> System.out.println(this.show());
@@ -170,6 +175,9 @@ public class LunarLandingPTUI implements Observer<LunarLandingModel, Object > {
     @Override
     public void update( LunarLandingModel o, Object arg ) {
         System.out.println(this.show());
+        if ("unsolvable".equals(arg)) {
+            System.out.println("The goal can no longer be reached");
+        }
         if((this.model.getGoalLunar().row() == this.model.getExplorer().row()) &&
                 (this.model.getGoalLunar().col() == this.model.getExplorer().col())){
             if(!lastCommand.equals("hint")) {
@@ -2,9 +2,11 @@ package puzzles.tipover;
 
 import puzzles.tipover.model.TipOverConfig;
 import solver.Configuration;
+import solver.SearchBudget;
+import solver.SearchResult;
+import solver.SolveCache;
 import solver.Solver;
 import util.Coordinates;
-import util.Grid;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
@@ -31,7 +33,8 @@ public class TipOver {
             String[] fields = line.split("\\s+");
             int boardsRow = Integer.parseInt(fields[0]);
             int boardsCol = Integer.parseInt(fields[1]);
-            Grid<String> board = new Grid<>("", boardsRow, boardsCol);
+            // heights are parsed once here, the solver never looks at strings
+            byte[] heights = new byte[boardsRow * boardsCol];
             Coordinates tipper = new Coordinates(Integer.parseInt(fields[2]), Integer.parseInt(fields[3]));
             Coordinates goalCrane = new Coordinates(Integer.parseInt(fields[4]), Integer.parseInt(fields[5]));
             int row = 0;
@@ -41,19 +44,20 @@ public class TipOver {
                 }
                 fields = line.split("\\s+");
                 for(int col = 0; col < fields.length; col++){
-                    board.set(fields[col], row, col);
+                    heights[row * boardsCol + col] = Byte.parseByte(fields[col]);
                 }
                 row ++;
             }
             // Instance of tipOver config
-            Configuration tipOver = new TipOverConfig(board, tipper, goalCrane, false);
+            Configuration tipOver = new TipOverConfig(boardsRow, boardsCol, heights, tipper, goalCrane, false);
             //Create an instance of a solver and store its shortestPath List into a collection.
-            Solver solver = new Solver();
-            Collection<Configuration> shortestPath = solver.getShortestPath(tipOver);
+            // Solved puzzles are remembered for the rest of the program
+            SearchResult result = SolveCache.shared().solve(tipOver, Solver::new, SearchBudget.UNLIMITED);
+            Collection<Configuration> shortestPath = result.getPath();
 
             //Display both total configurations and unique configurations
-            System.out.println("Total configs: " + solver.getTotalConfigs());
-            System.out.println("Unique configs: " + solver.getUniqueConfigs());
+            System.out.println("Total configs: " + result.getTotalConfigs());
+            System.out.println("Unique configs: " + result.getUniqueConfigs());
 
             //If the List constructed at the end of BFS is empty it means we did not find a match
             //Otherwise we want to print every step with its correlating TipOverConfig
@@ -1,6 +1,7 @@
 package puzzles.tipover.gui;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
@@ -12,6 +13,7 @@ import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import puzzles.tipover.model.TipOverConfig;
 import puzzles.tipover.model.TipOverModel;
 import util.Coordinates;
 import util.Grid;
@@ -180,28 +182,30 @@ public class TipOverGUI extends Application
         // Button that will move the player in the correct direction one move at a time
         Button hint = new Button("Hint");
         hint.setFont(new Font(20));
-        hint.setOnAction(event -> this.model.hint());
+        hint.setOnAction(event -> this.model.requestHint());
         this.menu.getChildren().addAll(load, reload, hint);
 
     }
 
     /**
      * Function that builds the main GridPane - used for our board.
+     *
+     * @param config the configuration to show
      */
-    public void gridDisplay() {
-        int rowSize = this.model.getCurrentConfig().getBoard().getNRows();
-        int colSize = this.model.getCurrentConfig().getBoard().getNCols();
-        for (int row = 0; row < rowSize; ++row) {
-            for (int col = 0; col < colSize; ++col) {
+    public void gridDisplay(TipOverConfig config) {
+        // the board is built from the configuration's heights, so it is only built once per display
+        Grid<String> board = config.getBoard();
+        for (int row = 0; row < board.getNRows(); ++row) {
+            for (int col = 0; col < board.getNCols(); ++col) {
                 // currentPos is used to check if we're on our goal or tipper position and if so we want to highlight
                 // those labels.
                 Coordinates currentPos = new Coordinates(row, col);
-                Label piece = new Label(this.model.getCurrentConfig().getBoard().get(row, col));
+                Label piece = new Label(board.get(row, col));
                 piece.setFont(new Font(35));
-                if (currentPos.equals(this.model.getCurrentConfig().getTippersPos())) {
+                if (currentPos.equals(config.getTippersPos())) {
                     piece.setBackground(tipperBackground);
                 }
-                if (currentPos.equals(this.model.getCurrentConfig().getGoalCratePos())) {
+                if (currentPos.equals(config.getGoalCratePos())) {
                     piece.setBackground(goalBackground);
                 }
                 this.gpane.add(piece, col, row);
@@ -223,7 +227,7 @@ public class TipOverGUI extends Application
         bmainPane.setTop(this.topLabel);
 
         //Initialize our board
-        gridDisplay();
+        gridDisplay(this.model.snapshot().config());
         bmainPane.setLeft(gpane);
 
         //Initialize our direction buttons as well as load, reload, and buttons
@@ -241,21 +245,40 @@ public class TipOverGUI extends Application
 
     /**
      * This function is called by the update function to update our GridPane that contains our current board.
+     *
+     * @param config the configuration to show
      */
-    public void updateBoard() {
+    public void updateBoard(TipOverConfig config) {
         // Clears the current content in the GridPane so it is empty
         this.gpane.getChildren().clear();
         // Refills our Grid Pane using the updated configuration
-        gridDisplay();
+        gridDisplay(config);
     }
 
     @Override
     public void update(TipOverModel tipOverModel, Object o) {
+        // Hints are announced from the solver's thread, so the scene is only ever touched on the FX thread. The model
+        // is read here, while it is still locked by announce, rather than later on the FX thread.
+        TipOverModel.Snapshot snapshot = tipOverModel.snapshot();
+        if (Platform.isFxApplicationThread()) {
+            refresh(o, snapshot);
+        } else {
+            Platform.runLater(() -> refresh(o, snapshot));
+        }
+    }
+
+    /**
+     * Updates the label and board after the model announces a change. Must be called on the FX thread.
+     *
+     * @param o        what the model announced
+     * @param snapshot the model as it was when it announced the change
+     */
+    private void refresh(Object o, TipOverModel.Snapshot snapshot) {
         // Handles all moves - will get overridden if dealing with hint calls or towers be tipped over.
-        if (this.model.getResultMove()) {
+        if (snapshot.resultMove()) {
             this.topLabel.setText("No crate or tower there.");
         } else {
-            if (this.model.getCurrentConfig().isSolution()) {
+            if (snapshot.config().isSolution()) {
                 this.topLabel.setText("You Won!!");
             } else {
                 this.topLabel.setText("");
@@ -265,23 +288,38 @@ public class TipOverGUI extends Application
         // Updates the label to display if the solver has reached the winning goal or the current configuration is
         // unsolvable
         if (o != null && o.equals("hint")) {
-            if (this.model.getResultHint()) {
+            if (snapshot.resultHint()) {
                 this.topLabel.setText("Unsolvable board.");
             } else {
                 this.topLabel.setText("");
             }
-            if (this.model.getCurrentConfig().isSolution()) {
+            if (snapshot.config().isSolution()) {
                 this.topLabel.setText("I Won!!");
             }
         }
 
+        // The solver gave up before finding the next move
+        if (o != null && o.equals("budget")) {
+            this.topLabel.setText("No hint found within the search limits.");
+        }
+
+        // The move left the goal out of reach
+        if (o != null && o.equals("unsolvable")) {
+            this.topLabel.setText("The goal can no longer be reached.");
+        }
+
+        // The hint search could not be run or went wrong
+        if (o != null && o.equals("failed")) {
+            this.topLabel.setText("The hint search failed.");
+        }
+
         // Will change label to display a tower has been tipped - works for both the user's and the solver's move
         if (o != null && o.equals("tower")) {
             this.topLabel.setText("A tower has been tipped over.");
         }
 
         // Update our board
-        updateBoard();
+        updateBoard(snapshot.config());
 
         //Will resize the window if need be - the board will change size depending on the current configuration
         this.stage.sizeToScene();
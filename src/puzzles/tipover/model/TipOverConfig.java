@@ -1,10 +1,14 @@
 package puzzles.tipover.model;
 
 import solver.Configuration;
+import solver.EncodableConfiguration;
+import solver.Move;
 import util.Coordinates;
 import util.Grid;
 
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 
 /**
  * Class represents a TipOver configuration. The configuration is made up of the puzzles board , the tipper, and goal
@@ -13,17 +17,17 @@ import java.util.*;
  * @author Miguel Reyes
  * November 2021
  */
-public class TipOverConfig implements Configuration {
+public class TipOverConfig implements EncodableConfiguration {
 
     /**
      * The TipOverConfigs goal crate's position - it never changes.
      */
     private final Coordinates goalCratePos;
     /**
-     * The current board of a TipOverConfig. It is current because the board may change if a tower is tipped over. If
-     * solely dealing with crates then the board will remain the same.
+     * The height of every square of the current board, row by row, 0 for an empty square. It is current because the
+     * board may change if a tower is tipped over. If solely dealing with crates then the board will remain the same.
      */
-    private Grid<String> board;
+    private final byte[] heights;
 
     /**
      * Tells us if the current configuration is a result of tipping a tower.
@@ -36,17 +40,104 @@ public class TipOverConfig implements Configuration {
     private Coordinates tippersPos;
 
     /**
-     * Constructor to initialize state of TipOverConfig
+     * The board this configuration was first reached from and where its towers stood. It is shared by every
+     * configuration reached from the same board.
+     */
+    private final Layout layout;
+
+    /**
+     * Which way each of the layout's towers has been tipped, one base 5 digit per tower: 0 while it is still standing,
+     * otherwise one more than the index of the direction in {@link Coordinates#CARDINAL_NEIGHBORS}.
+     */
+    private final long towerStates;
+
+    /**
+     * The starting board of a TipOverConfig and its towers. A tower can only be tipped once and the cells it covers
+     * were empty, so any board reached from the starting board is known from the direction each tower was tipped.
+     */
+    private static final class Layout {
+        private final int nRows;
+        private final int nCols;
+        private final byte[] origin;
+        private final Coordinates[] towers;
+        private final int[] towerIndex;
+        private final long[] powers;
+
+        private Layout(int nRows, int nCols, byte[] origin) {
+            this.nRows = nRows;
+            this.nCols = nCols;
+            this.origin = origin;
+            this.towerIndex = new int[origin.length];
+            List<Coordinates> found = new ArrayList<>();
+            for (int square = 0; square < origin.length; ++square) {
+                this.towerIndex[square] = -1;
+                if (origin[square] > 1) {
+                    this.towerIndex[square] = found.size();
+                    found.add(new Coordinates(square / nCols, square % nCols));
+                }
+            }
+            this.towers = found.toArray(new Coordinates[0]);
+            this.powers = new long[this.towers.length];
+            long power = 1;
+            for (int i = 0; i < this.towers.length; ++i) {
+                this.powers[i] = power;
+                power = power <= Long.MAX_VALUE / 5 ? power * 5 : Long.MAX_VALUE;
+            }
+        }
+    }
+
+    /**
+     * Constructor to initialize state of TipOverConfig from a board of height strings, which are parsed once here
      *
      * @param board        The current board
      * @param tippersPos   The tipper's current position
      * @param goalCratePos The goal crate's position
      */
     public TipOverConfig(Grid<String> board, Coordinates tippersPos, Coordinates goalCratePos, boolean tipped) {
-        this.board = board;
+        this(board.getNRows(), board.getNCols(), parseHeights(board), tippersPos, goalCratePos, tipped);
+    }
+
+    /**
+     * Constructor to initialize state of TipOverConfig
+     *
+     * @param nRows        The number of rows of the board
+     * @param nCols        The number of columns of the board
+     * @param heights      The height of every square, row by row, 0 for an empty square
+     * @param tippersPos   The tipper's current position
+     * @param goalCratePos The goal crate's position
+     */
+    public TipOverConfig(int nRows, int nCols, byte[] heights, Coordinates tippersPos, Coordinates goalCratePos,
+                         boolean tipped) {
+        this(new Layout(nRows, nCols, heights), heights, tippersPos, goalCratePos, tipped, 0);
+    }
+
+    /**
+     * Constructor for configurations reached from another one, which share its layout.
+     */
+    private TipOverConfig(Layout layout, byte[] heights, Coordinates tippersPos, Coordinates goalCratePos,
+                          boolean tipped, long towerStates) {
+        this.layout = layout;
+        this.heights = heights;
         this.tippersPos = tippersPos;
         this.goalCratePos = goalCratePos;
         this.tipped = tipped;
+        this.towerStates = towerStates;
+    }
+
+    /**
+     * Parses a board of height strings
+     *
+     * @param board the board
+     * @return the height of every square, row by row
+     */
+    private static byte[] parseHeights(Grid<String> board) {
+        byte[] heights = new byte[board.getNRows() * board.getNCols()];
+        for (int row = 0; row < board.getNRows(); ++row) {
+            for (int col = 0; col < board.getNCols(); ++col) {
+                heights[row * board.getNCols() + col] = Byte.parseByte(board.get(row, col));
+            }
+        }
+        return heights;
     }
 
     /**
@@ -57,12 +148,24 @@ public class TipOverConfig implements Configuration {
         return goalCratePos;
     }
     /**
-     * Returns the board of the configuration
-     * @return The board of the configuration
+     * Builds the board of the configuration, for showing it
+     * @return The board of the configuration, with every square's height as a string
      */
     public Grid<String> getBoard() {
+        Grid<String> board = new Grid<>("", this.layout.nRows, this.layout.nCols);
+        for (int square = 0; square < this.heights.length; ++square) {
+            board.set(Byte.toString(this.heights[square]), square / this.layout.nCols, square % this.layout.nCols);
+        }
         return board;
     }
+    /**
+     * Returns the height of a square
+     * @param pos The square, which must be on the board
+     * @return Its height, 0 if it is empty
+     */
+    public int getHeight(Coordinates pos) {
+        return this.heights[pos.row() * this.layout.nCols + pos.col()];
+    }
     /**
      * Returns the tippers position
      * @return The tippers position
@@ -88,161 +191,304 @@ public class TipOverConfig implements Configuration {
         return c == 1;
     }
 
+    @Override
+    public boolean isSolution() {
+        return tippersPos.equals(goalCratePos);
+    }
+
     /**
-     * Here we will build a HashMap that stores the four Cardinal directions as its keys and its values are True or
-     * False. The function will check if the tower is tippable and if so in what direction is it tippable. Helper
-     * function for the getNeighbors when our tipper is on a tower.
+     * Walking moves the tipper one square and tipping a tower also leaves the tipper on the square next to where the
+     * tower stood, so every move changes the tipper's position by exactly one square. The Manhattan distance to the
+     * goal crate is therefore never an overestimate. Dividing it by the tallest tower's reach would also be admissible,
+     * but weaker, since the tipper never travels the length of the tower in one move.
      *
-     * @param height height of the tower
-     * @return A HashMap whose keys are Directions(NORTH, SOUTH, WEST, EAST) and whose values are Boolean types.
-     */
-    public HashMap<Coordinates.Direction, Boolean> mapOfTippableTower(int height) {
-        // Our Map
-        HashMap<Coordinates.Direction, Boolean> towerTipDir = new HashMap<>();
-        // List of the Cardinal Neighbors - this will be updated everytime a tower is not tippable in a direction at
-        // a certain coordinate position. Gets updated to the directions that are still valid.
-        ArrayList<Coordinates.Direction> allDir = new ArrayList<>(Arrays.asList(Coordinates.CARDINAL_NEIGHBORS));
-        //We want to check every square <= height
+     * @return Manhattan distance from the tipper to the goal crate
+     */
+    @Override
+    public int heuristic() {
+        return Math.abs(this.tippersPos.row() - this.goalCratePos.row())
+                + Math.abs(this.tippersPos.col() - this.goalCratePos.col());
+    }
+
+    @Override
+    public List<Configuration> getNeighbors() {
+        // Linked list to store neighbors of a TipOverConfig
+        List<Configuration> neighbors = new LinkedList<>();
+        forEachNeighbor(neighbors::add);
+        return neighbors;
+    }
+
+    @Override
+    public void forEachNeighbor(Consumer<Configuration> action) {
+        for (Coordinates.Direction d : Coordinates.CARDINAL_NEIGHBORS) {
+            TipOverConfig neighbor = move(d);
+            if (neighbor != null) {
+                action.accept(neighbor);
+            }
+        }
+    }
+
+    /**
+     * The same moves as {@link #move(Coordinates.Direction)} in each cardinal direction, but only the resulting codes
+     * are worked out, so no board is copied for a tipped tower.
+     */
+    @Override
+    public void forEachNeighborCode(LongConsumer action) {
+        int cols = this.layout.nCols;
+        long squares = this.heights.length;
+        int row = tippersPos.row();
+        int col = tippersPos.col();
+        int height = this.heights[row * cols + col];
+        for (int k = 0; k < Coordinates.CARDINAL_NEIGHBORS.length; ++k) {
+            Coordinates delta = Coordinates.CARDINAL_NEIGHBORS[k].coords;
+            int nextRow = row + delta.row();
+            int nextCol = col + delta.col();
+            if (!isCrate(height) && isTippable(delta.row(), delta.col(), height)) {
+                long tipped = this.towerStates + (k + 1) * this.layout.powers[this.layout.towerIndex[row * cols + col]];
+                action.accept(tipped * squares + (long) nextRow * cols + nextCol);
+            } else if (isStandable(nextRow, nextCol)) {
+                action.accept(this.towerStates * squares + (long) nextRow * cols + nextCol);
+            }
+        }
+    }
+
+    /**
+     * Moves the tipper one step in the given direction. If the tipper is on a tower that can be tipped that way the
+     * tower is tipped, otherwise the tipper steps onto the next square as long as it is on the board and not empty.
+     *
+     * @param d the direction to move
+     * @return the configuration after the move, or null if the tipper can not move that way
+     */
+    public TipOverConfig move(Coordinates.Direction d) {
+        int cols = this.layout.nCols;
+        int square = tippersPos.row() * cols + tippersPos.col();
+        int height = this.heights[square];
+        Coordinates current = tippersPos.sum(d.coords);
+        if (!isCrate(height) && isTippable(d.coords.row(), d.coords.col(), height)) {
+            // Here we are tipping over the tower so our board changes, so we copy the current heights and update the
+            // copy with the tower being tipped.
+            byte[] newHeights = this.heights.clone();
+            // The tower is now an empty cell.
+            newHeights[square] = 0;
+            int step = d.coords.row() * cols + d.coords.col();
+            for (int i = 1; i <= height; i++) {
+                newHeights[square + step * i] = 1;
+            }
+            long tipDirection = Arrays.asList(Coordinates.CARDINAL_NEIGHBORS).indexOf(d) + 1;
+            return new TipOverConfig(this.layout, newHeights, current, this.goalCratePos, true,
+                    this.towerStates + tipDirection * this.layout.powers[this.layout.towerIndex[square]]);
+        }
+        // Crates, and towers that can't be tipped this way, just let the tipper step onto the next square.
+        if (isStandable(current.row(), current.col())) {
+            return new TipOverConfig(this.layout, this.heights, current, this.goalCratePos, false, this.towerStates);
+        }
+        return null;
+    }
+
+    /**
+     * Checks that every square the tower would land on is on the board and empty.
+     *
+     * @param rowStep row change of the direction to tip
+     * @param colStep column change of the direction to tip
+     * @param height  height of the tower
+     * @return True if the tower can be tipped in that direction
+     */
+    private boolean isTippable(int rowStep, int colStep, int height) {
         for (int i = 1; i <= height; i++) {
-            //This is going to hold the updated directions that are then assigned to allDir
-            ArrayList<Coordinates.Direction> updatedDir = new ArrayList<>();
-            for (Coordinates.Direction dir : allDir) {
-                //Check if at i this coordinate is legal and an empty space. If so add it to updated list and set its
-                // key-value pair to true. Otherwise, do not add it to the updated list and set its key-value pair to
-                // false.
-                Coordinates current = tippersPos.sum(dir.coords.multiply(i));
-                if (this.board.legalCoords(current) && this.board.get(current).equals("0")) {
-                    updatedDir.add(dir);
-                    towerTipDir.put(dir, true);
-                } else {
-                    towerTipDir.put(dir, false);
-                }
+            if (!isEmpty(tippersPos.row() + rowStep * i, tippersPos.col() + colStep * i)) {
+                return false;
             }
-            //allDir is now up-to-date
-            allDir = updatedDir;
         }
-        return towerTipDir;
+        return true;
+    }
+
+    /**
+     * @param row row of the square
+     * @param col column of the square
+     * @return True if the square is on the board and empty
+     */
+    private boolean isEmpty(int row, int col) {
+        return 0 <= row && row < this.layout.nRows && 0 <= col && col < this.layout.nCols
+                && this.heights[row * this.layout.nCols + col] == 0;
+    }
+
+    /**
+     * @param row row of the square
+     * @param col column of the square
+     * @return True if the square is on the board and holds a crate or a tower
+     */
+    private boolean isStandable(int row, int col) {
+        return 0 <= row && row < this.layout.nRows && 0 <= col && col < this.layout.nCols
+                && this.heights[row * this.layout.nCols + col] != 0;
+    }
+
+    /**
+     * A configuration is packed as the direction every tower has been tipped, followed by the tipper's square. This
+     * fits as long as 5 to the power of the number of towers times the number of squares fits in a long.
+     */
+    @Override
+    public boolean isEncodable() {
+        long squares = this.layout.origin.length;
+        if (this.layout.towers.length == 0) {
+            return true;
+        }
+        long highest = this.layout.powers[this.layout.towers.length - 1];
+        return highest < Long.MAX_VALUE / 5 / squares;
     }
 
     @Override
-    public boolean isSolution() {
-        return tippersPos.equals(goalCratePos);
+    public long encode() {
+        long squares = this.layout.origin.length;
+        return this.towerStates * squares + (long) tippersPos.row() * this.layout.nCols + tippersPos.col();
     }
 
     @Override
-    public List<Configuration> getNeighbors() {
-        // Linked list to store neighbors of a TipOverConfig
-        List<Configuration> neighbors = new LinkedList<>();
+    public boolean isSolution(long code) {
+        int cols = this.layout.nCols;
+        long squares = this.layout.origin.length;
+        return code % squares == (long) this.goalCratePos.row() * cols + this.goalCratePos.col();
+    }
 
-        int height = Integer.parseInt(this.board.get(tippersPos));
-        // If it's a crate we want to check all Cardinal Neighbor directions and see if it's a legal coord. pos and not
-        // empty for out tipper to move one space.
-        if (isCrate(height)) {
-            for (Coordinates.Direction d : Coordinates.CARDINAL_NEIGHBORS) {
-                Coordinates current = tippersPos.sum(d.coords.multiply(1));
-                if (this.board.legalCoords(current) && !this.board.get(current).equals("0")) {
-                    neighbors.add(new TipOverConfig(this.board, current, this.goalCratePos, false));
-                }
+    @Override
+    public TipOverConfig decode(long code) {
+        int cols = this.layout.nCols;
+        long squares = this.layout.origin.length;
+        int square = (int) (code % squares);
+        long states = code / squares;
+        Coordinates tipper = new Coordinates(square / cols, square % cols);
+
+        // Clear every tipped tower first, a later tower may have been tipped across where an earlier one stood
+        byte[] newHeights = this.layout.origin.clone();
+        for (int tower = 0; tower < this.layout.towers.length; ++tower) {
+            if ((states / this.layout.powers[tower]) % 5 != 0) {
+                newHeights[this.layout.towers[tower].row() * cols + this.layout.towers[tower].col()] = 0;
             }
-        } else {
-            // Get our map for our tower
-            HashMap<Coordinates.Direction, Boolean> towerTipDir = mapOfTippableTower(height);
-            // Check if the tower is tippable and in what direction
-            for (Coordinates.Direction d : Coordinates.CARDINAL_NEIGHBORS) {
-                if (towerTipDir.get(d)) {
-                    // Here we are tipping over the tower so our board changes, so we make a deep copy of the current
-                    // board and update the copy with the tower being tipped.
-                    Grid<String> newBoard = new Grid<>(this.board);
-                    // The tower is now an empty cell.
-                    newBoard.set("0", tippersPos);
-                    for (int i = 1; i <= height; i++) {
-                        Coordinates current = tippersPos.sum(d.coords.multiply(i));
-                        newBoard.set("1", current);
-                    }
-                    Coordinates current = tippersPos.sum(d.coords.multiply(1));
-                    neighbors.add(new TipOverConfig(newBoard, current, this.goalCratePos, true));
-
-                } else {
-                    // Not all towers will be tippable, so we treat as if it were a crate.
-                    Coordinates current = tippersPos.sum(d.coords.multiply(1));
-                    if (this.board.legalCoords(current) && !this.board.get(current).equals("0")) {
-                        neighbors.add(new TipOverConfig(this.board, current, this.goalCratePos, false));
-                    }
+        }
+        for (int tower = 0; tower < this.layout.towers.length; ++tower) {
+            int tipDirection = (int) ((states / this.layout.powers[tower]) % 5);
+            if (tipDirection != 0) {
+                Coordinates.Direction d = Coordinates.CARDINAL_NEIGHBORS[tipDirection - 1];
+                int base = this.layout.towers[tower].row() * cols + this.layout.towers[tower].col();
+                int step = d.coords.row() * cols + d.coords.col();
+                for (int i = 1; i <= this.layout.origin[base]; i++) {
+                    newHeights[base + step * i] = 1;
                 }
             }
         }
+        return new TipOverConfig(this.layout, newHeights, tipper, this.goalCratePos, false, states);
+    }
 
-        return neighbors;
+    /**
+     * The tipper always ends up one square away, whether it stepped or tipped a tower, so the move is the direction of
+     * that square.
+     *
+     * @param next a neighbor of this configuration
+     * @return the tipper moving north, south, east or west
+     */
+    @Override
+    public Move describeMove(Configuration next) {
+        Coordinates step = this.tippersPos.difference(((TipOverConfig) next).tippersPos);
+        for (Coordinates.Direction d : Coordinates.CARDINAL_NEIGHBORS) {
+            if (d.coords.equals(step)) {
+                // directions are lowercase words in every puzzle's moves
+                return new Move("tipper", d.name().toLowerCase());
+            }
+        }
+        throw new IllegalArgumentException(next + " is not a neighbor");
+    }
+
+    @Override
+    public Configuration applyMove(Move move) {
+        return move(Coordinates.Direction.valueOf(move.direction().toUpperCase()));
+    }
+
+    /**
+     * Codes count tipped towers of the board the configuration was reached from, so the key names that board as well
+     * as the current one.
+     */
+    @Override
+    public String canonicalKey() {
+        StringBuilder key = new StringBuilder("TipOver ");
+        key.append(this.layout.nRows).append(' ').append(this.layout.nCols).append(' ')
+                .append(this.tippersPos).append(' ').append(this.goalCratePos);
+        appendHeights(key, this.heights);
+        key.append(" from");
+        appendHeights(key, this.layout.origin);
+        return key.toString();
+    }
+
+    /**
+     * Appends a board's heights, with commas between columns and slashes between rows.
+     *
+     * @param key     the key being built
+     * @param heights the heights of a board of this size
+     */
+    private void appendHeights(StringBuilder key, byte[] heights) {
+        for (int square = 0; square < heights.length; ++square) {
+            key.append(square == 0 ? " " : square % this.layout.nCols == 0 ? "/" : ",").append(heights[square]);
+        }
     }
 
     @Override
     public String toString() {
-        // Copy of the current board
-        Grid<String> newBoard = new Grid<>(this.board);
         //Will convert StringBuilder to String and return it
         StringBuilder result = new StringBuilder();
         // Every row we want to start at a new line. The first 2 rows will be indented a tab space and will be used for
         // placing the column numbers.
-        for (int row = 0; row < newBoard.getNRows() + 2; ++row) {
+        for (int row = 0; row < this.layout.nRows + 2; ++row) {
             result.append("\n");
             if (row < 2) {
                 result.append("\t");
-                for (int col = 0; col < newBoard.getNCols(); ++col) {
-                    if (row == 0 && col < newBoard.getNCols()) {
+                for (int col = 0; col < this.layout.nCols; ++col) {
+                    if (row == 0) {
                         result.append("  ");
                         result.append(col);
-                    } else if (col < newBoard.getNCols()) {
+                    } else {
                         result.append("___");
                     }
                 }
             } else {
                 //The remaining rows will start with the row numbers separated by ( | ) following pieces of the board
                 result.append(" ").append(row - 2).append(" |");
-                for (int col = 0; col < newBoard.getNCols(); ++col) {
-                    Coordinates currentCoord = new Coordinates(row - 2, col);
-                    //If the board is a 0 == empty so replace it with "_"
-                    if (newBoard.get(currentCoord).equals("0")) {
-                        newBoard.set("_", currentCoord);
-                    }
-                    //Once the tipper's position is equal to the goal crates position we want to indicate the tipper has
-                    //reached the goal with an asterisk
-                    if (currentCoord.equals(this.tippersPos) && currentCoord.equals(this.goalCratePos)) {
-                        newBoard.set("*" + newBoard.get(currentCoord), currentCoord);
-                    } else {
-                        //The Tippers current position on the board
-                        if (currentCoord.equals(this.tippersPos)) {
-                            newBoard.set("*" + newBoard.get(currentCoord), currentCoord);
-                        }
-                        //The goal crates position
-                        if (currentCoord.equals(this.goalCratePos)) {
-                            newBoard.set("!" + newBoard.get(currentCoord), currentCoord);
-                        }
+                for (int col = 0; col < this.layout.nCols; ++col) {
+                    //An empty square is shown as "_"
+                    int height = this.heights[(row - 2) * this.layout.nCols + col];
+                    String cell = height == 0 ? "_" : Integer.toString(height);
+                    //The Tippers current position on the board is marked with an asterisk, which also shows it has
+                    //reached the goal once it is on the goal crate. Otherwise, the goal crate is marked with a !
+                    if (this.tippersPos.row() == row - 2 && this.tippersPos.col() == col) {
+                        cell = "*" + cell;
+                    } else if (this.goalCratePos.row() == row - 2 && this.goalCratePos.col() == col) {
+                        cell = "!" + cell;
                     }
                     //For correct spacing on the board
-                    if (newBoard.get(currentCoord).contains("!") || newBoard.get(currentCoord).contains("*")) {
-                        result.append(" ");
-                    } else {
-                        result.append("  ");
-                    }
+                    result.append(cell.startsWith("*") || cell.startsWith("!") ? " " : "  ");
                     //Our towers and crates
-                    result.append(newBoard.get(currentCoord));
+                    result.append(cell);
                 }
             }
         }
         return result.toString();
     }
 
+    /**
+     * Two configurations are equal when the tipper and every height match and they were reached from the same board,
+     * since that board decides their codes.
+     */
     @Override
     public boolean equals(Object obj) {
         boolean result = false;
-        if (obj instanceof TipOverConfig otherWater) {
-            result = this.tippersPos.equals(otherWater.tippersPos) && this.board.equals(otherWater.board);
+        if (obj instanceof TipOverConfig otherTipOver) {
+            result = this.tippersPos.equals(otherTipOver.tippersPos)
+                    && Arrays.equals(this.heights, otherTipOver.heights)
+                    && this.layout.nCols == otherTipOver.layout.nCols && (this.layout == otherTipOver.layout
+                    || Arrays.equals(this.layout.origin, otherTipOver.layout.origin));
         }
         return result;
     }
 
     @Override
     public int hashCode() {
-        return this.tippersPos.hashCode() + this.board.hashCode();
+        return this.tippersPos.hashCode() + Arrays.hashCode(this.heights);
     }
 }
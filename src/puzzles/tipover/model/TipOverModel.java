@@ -1,16 +1,23 @@
 package puzzles.tipover.model;
 
+import solver.CancellationToken;
 import solver.Configuration;
+import solver.DistanceTable;
+import solver.SearchBudget;
+import solver.SearchResult;
+import solver.SolveCache;
+import solver.SolveService;
 import solver.Solver;
 import util.Coordinates;
 import util.Grid;
 import util.Observer;
 import java.io.BufferedReader;
 import java.io.FileReader;
-import java.util.Collection;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Definition for the model of a Tip Over game.
@@ -20,6 +27,30 @@ import java.util.List;
  */
 public class TipOverModel {
 
+    /**
+     * Limits on the search behind a hint, so a huge board gives up rather than freezing the game or exhausting memory
+     */
+    private static final SearchBudget HINT_BUDGET =
+            SearchBudget.UNLIMITED.withMaxMillis(10_000).withMaxVisitedBytes(512L << 20);
+
+    /**
+     * Runs hint searches in the background for every TipOver model; only the latest hint of a model is ever wanted.
+     * The thread is shared rather than one per model: a program shows one board at a time, a model cancels its hint
+     * before asking for the next one or loading a board, and every search is bounded by HINT_BUDGET, so a stale search
+     * holds the thread for at most a few seconds. A thread per model would also outlive the model it served.
+     */
+    private static final SolveService HINTS = new SolveService(1, 4, SolveCache.shared());
+
+    /**
+     * Builds distance tables in the background, apart from the hint searches so a hint never waits behind a table
+     */
+    private static final SolveService TABLES = new SolveService(1, 4);
+
+    /**
+     * Boards with more reachable configurations than this get no distance table, and their hints are searched for.
+     * A board over the limit is given up on after a few tens of milliseconds.
+     */
+    private static final int MAX_TABLE_STATES = 1 << 16;
 
     /**
      * Those objects that are watching this object's every move
@@ -48,6 +79,29 @@ public class TipOverModel {
      */
     private boolean resultMove;
 
+    /**
+     * Cancels the hint search running in the background, or null if there is none
+     */
+    private CancellationToken pendingHint;
+
+    /**
+     * The path of the latest successful hint search, and the index of every configuration on it. While the player
+     * stays on this path the next hint is read from it instead of searching again.
+     */
+    private List<Configuration> hintPath = new ArrayList<>();
+    private final Map<Configuration, Integer> hintIndex = new HashMap<>();
+
+    /**
+     * Moves to the goal from every configuration reachable from the loaded board, or null while it is being built or
+     * if there are too many
+     */
+    private DistanceTable distances;
+
+    /**
+     * Cancels the distance table being built in the background, or null if there is none
+     */
+    private CancellationToken pendingTable;
+
     /**
      * Construct a TipOverModel; there is only one model.
      */
@@ -55,6 +109,27 @@ public class TipOverModel {
         this.observers = new LinkedList<>();
         this.currentConfig = new TipOverConfig(board, tippersPos, goalCratePos, false);
         this.reloadConfig = this.currentConfig;
+        buildDistances();
+    }
+
+    /**
+     * What an observer shows, read together so it all comes from the same moment.
+     *
+     * @param config     the current configuration
+     * @param resultMove the value of {@link #getResultMove()}
+     * @param resultHint the value of {@link #getResultHint()}
+     */
+    public record Snapshot(TipOverConfig config, boolean resultMove, boolean resultHint) {
+    }
+
+    /**
+     * Reads the state an observer shows. Hints change the model from a background thread, so an observer that shows
+     * the model later, on another thread, takes the snapshot in its update, while announce still holds the lock.
+     *
+     * @return the current state
+     */
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(this.currentConfig, getResultMove(), getResultHint());
     }
 
     /**
@@ -83,75 +158,202 @@ public class TipOverModel {
 
     /**
      * Will check if it is ok to move one step in the direction provided as well as check if this one step has tipped
-     * over a tower.
+     * over a tower. A move the distance table knows leaves the goal out of reach announces "unsolvable" instead.
      * @param direction - String that represents an ENUM type Coordinate.Directions
      */
-    public void move(String direction) {
+    public synchronized void move(String direction) {
+        cancelHint();
         this.resultMove = false;
-        int height = Integer.parseInt(this.currentConfig.getBoard().get(this.currentConfig.getTippersPos()));
-        // If it's a crate we want to check all Cardinal Neighbor directions and see if it's a legal coord. pos and not
-        // empty for out tipper to move one space.
-        if (this.currentConfig.isCrate(height)) {
-            Coordinates.Direction d = Coordinates.Direction.valueOf(direction);
-            Coordinates current = this.currentConfig.getTippersPos().sum(d.coords.multiply(1));
-            if (this.currentConfig.getBoard().legalCoords(current) && !this.currentConfig.getBoard().get(current).equals("0")) {
-                this.currentConfig = new TipOverConfig(this.currentConfig.getBoard(), current, this.currentConfig.getGoalCratePos(), false);
-                this.resultMove = true;
-            }
+        // Crates and towers that can't be tipped move the tipper one space, otherwise the tower is tipped over.
+        TipOverConfig next = this.currentConfig.move(Coordinates.Direction.valueOf(direction));
+        if (next != null) {
+            this.currentConfig = next;
+            this.resultMove = true;
+        }
+        if (next != null && isDeadEnd(next)) {
+            announce("unsolvable");
+        } else if (next != null && next.isTipped()) {
+            announce("tower");
+        } else {
             announce(null);
+        }
+    }
+
+    /**
+     * Will give the player the correct next move or will tell the player the board in its current conditions is not
+     * solvable. If the search runs out of its budget first, "budget" is announced and the board is left alone.
+     */
+    public synchronized void hint() {
+        cancelHint();
+        List<Configuration> knownPath = knownPath();
+        if (knownPath != null) {
+            usePath(knownPath);
         } else {
-            // Get our map for our tower
-            HashMap<Coordinates.Direction, Boolean> towerTipDir = this.currentConfig.mapOfTippableTower(height);
-            // Check if the tower is tippable and in what direction
-            Coordinates.Direction d = Coordinates.Direction.valueOf(direction);
-            if (towerTipDir.get(d)) {
-                // Here we are tipping over the tower so our board changes, so we make a deep copy of the current
-                // board and update the copy with the tower being tipped.
-                Grid<String> newBoard = new Grid<>(this.currentConfig.getBoard());
-                // The tower is now an empty cell.
-                newBoard.set("0", this.currentConfig.getTippersPos());
-                for (int i = 1; i <= height; i++) {
-                    Coordinates current = this.currentConfig.getTippersPos().sum(d.coords.multiply(i));
-                    newBoard.set("1", current);
-                }
-                Coordinates current = this.currentConfig.getTippersPos().sum(d.coords.multiply(1));
-                this.currentConfig = new TipOverConfig(newBoard, current, this.currentConfig.getGoalCratePos(), true);
-                this.resultMove = true;
-                announce("tower");
+            useHint(SolveCache.shared().solve(this.currentConfig, TipOverModel::hintSolver, HINT_BUDGET));
+        }
+    }
 
-            } else {
-                // Not all towers will be tippable, so we treat as if it were a crate.
-                Coordinates current = this.currentConfig.getTippersPos().sum(d.coords.multiply(1));
-                if (this.currentConfig.getBoard().legalCoords(current) && !this.currentConfig.getBoard().get(current).equals("0")) {
-                    this.currentConfig = new TipOverConfig(this.currentConfig.getBoard(), current, this.currentConfig.getGoalCratePos(), false);
-                    this.resultMove = true;
-                }
-                announce(null);
-            }
+    /**
+     * Starts looking for the next move in the background and returns right away. The move is made and announced in
+     * the same way as hint once the search ends, from the search's thread, unless the player has moved, loaded or
+     * asked for another hint in the meantime, in which case the search is cancelled and its result dropped. If the
+     * search could not be run or threw, "failed" is announced instead.
+     */
+    public synchronized void requestHint() {
+        cancelHint();
+        List<Configuration> knownPath = knownPath();
+        if (knownPath != null) {
+            usePath(knownPath);
+            return;
         }
+        CancellationToken token = new CancellationToken();
+        TipOverConfig start = this.currentConfig;
+        this.pendingHint = token;
+        HINTS.submit(TipOverModel::hintSolver, start, HINT_BUDGET.withToken(token))
+                .whenComplete((result, failure) -> finishHint(start, token, failure == null ? result : null));
     }
 
     /**
-     * Will give the player the correct next move or will tell the player the board in its current conditions is not
-     * solvable.
+     * Cancels the hint search running in the background, if there is one.
+     */
+    public synchronized void cancelHint() {
+        if (this.pendingHint != null) {
+            this.pendingHint.cancel();
+            this.pendingHint = null;
+        }
+    }
+
+    /**
+     * Uses the result of a background hint search, unless the board changed since it started.
+     *
+     * @param start  the configuration the search started from
+     * @param token  the token of the search
+     * @param result the result of the search, or null if it failed
+     */
+    private synchronized void finishHint(TipOverConfig start, CancellationToken token, SearchResult result) {
+        if (token.isCancelled() || start != this.currentConfig) {
+            return;
+        }
+        this.pendingHint = null;
+        if (result == null) {
+            this.resultHint = true;
+            announce("failed");
+            return;
+        }
+        useHint(result);
+    }
+
+    /**
+     * Starts building the distance table of the loaded board in the background, so loading never waits on it, and
+     * cancels the build of the board loaded before. Hints search as usual until the table is ready.
+     */
+    private void buildDistances() {
+        if (this.pendingTable != null) {
+            this.pendingTable.cancel();
+        }
+        this.distances = null;
+        TipOverConfig loaded = this.reloadConfig;
+        CancellationToken token = new CancellationToken();
+        this.pendingTable = token;
+        TABLES.run(() -> DistanceTable.build(loaded, MAX_TABLE_STATES, token))
+                .whenComplete((table, failure) -> useDistances(token, table));
+    }
+
+    /**
+     * Switches hints over to a finished distance table, unless another board was loaded since it was started.
+     *
+     * @param token  the token of the build
+     * @param table  the table, or null if the board has too many configurations or the build failed
+     */
+    private synchronized void useDistances(CancellationToken token, DistanceTable table) {
+        if (token == this.pendingTable) {
+            this.pendingTable = null;
+            this.distances = table;
+        }
+    }
+
+    /**
+     * Checks with the distance table whether a configuration can no longer reach the goal. Without a table, or for a
+     * configuration the table does not hold, the goal is assumed to be in reach.
+     *
+     * @param config the configuration to check
+     * @return True if the goal can not be reached from config
      */
-    public void hint() {
-        //Create an instance of a solver and store its shortestPath List into a collection.
+    private boolean isDeadEnd(TipOverConfig config) {
+        return this.distances != null && this.distances.contains(config)
+                && this.distances.getDistance(config.encode()) == DistanceTable.NO_PATH;
+    }
+
+    /**
+     * Creates the solver behind a hint
+     *
+     * @return the solver
+     */
+    private static Solver hintSolver() {
         Solver solver = new Solver();
-        Collection<Configuration> shortestPath = solver.getShortestPath(this.currentConfig);
-        List<Configuration> shortestPathList = new LinkedList<>(shortestPath);
+        // only the next move is needed, so stop as soon as a solution is generated
+        solver.setGoalOnGeneration(true);
+        return solver;
+    }
+
+    /**
+     * Finds a shortest path from the current configuration without searching, either from the distance table or from
+     * the cached hint path. Every configuration on a shortest path has the rest of that path as a shortest path of its
+     * own, so a suffix of the cached path can be used directly.
+     *
+     * @return the path from the current configuration, or null if a search is needed
+     */
+    private List<Configuration> knownPath() {
+        if (this.distances != null && this.distances.contains(this.currentConfig)) {
+            return this.distances.getShortestPath(this.currentConfig);
+        }
+        Integer index = this.hintIndex.get(this.currentConfig);
+        if (index == null) {
+            return null;
+        }
+        return this.hintPath.subList(index, this.hintPath.size());
+    }
+
+    /**
+     * Makes the next move of a hint search's path and announces it. A path found replaces the cached one.
+     *
+     * @param result the result of the search from the current configuration
+     */
+    private void useHint(SearchResult result) {
+        if (result.getStatus().isStopped()) {
+            this.resultHint = true;
+            announce("budget");
+            return;
+        }
+        List<Configuration> shortestPath = result.getPath();
+        if (!shortestPath.isEmpty()) {
+            this.hintPath = new ArrayList<>(shortestPath);
+            this.hintIndex.clear();
+            for (int i = 0; i < this.hintPath.size(); i++) {
+                this.hintIndex.put(this.hintPath.get(i), i);
+            }
+        }
+        usePath(shortestPath);
+    }
+
+    /**
+     * Makes the next move of a path from the current configuration and announces it.
+     *
+     * @param shortestPath the path from the current configuration, empty if there is none
+     */
+    private void usePath(List<Configuration> shortestPath) {
         //If the List constructed at the end of BFS is empty it means we did not find a match
         if (shortestPath.size() == 0) {
             this.resultHint = false;
             announce("hint");
         } else {
-            int height = Integer.parseInt(this.currentConfig.getBoard().get(this.currentConfig.getTippersPos()));
+            int height = this.currentConfig.getHeight(this.currentConfig.getTippersPos());
             // List is size 1 means that we have reached the solution, so we want the first value of the list.
             if (shortestPath.size() == 1) {
-                this.currentConfig = ((TipOverConfig) shortestPathList.get(0));
+                this.currentConfig = ((TipOverConfig) shortestPath.get(0));
             } else {
                 // Otherwise, give us the next step
-                this.currentConfig = ((TipOverConfig) shortestPathList.get(1));
+                this.currentConfig = ((TipOverConfig) shortestPath.get(1));
             }
             // Check if the current configuration was the result of a tipped tower if so we want to announce tower.
             if (height > 1 && this.currentConfig.isTipped()) {
@@ -171,13 +373,15 @@ public class TipOverModel {
      * @param arg - File name
      * @throws Exception - File selection may be incorrect for the program.
      */
-    public void load(String arg) throws Exception {
+    public synchronized void load(String arg) throws Exception {
+        cancelHint();
         try (BufferedReader inputReader = new BufferedReader(new FileReader(arg))) {
             String line = inputReader.readLine();
             String[] fields = line.split("\\s+");
             int boardsRow = Integer.parseInt(fields[0]);
             int boardsCol = Integer.parseInt(fields[1]);
-            Grid<String> board = new Grid<>("", boardsRow, boardsCol);
+            // heights are parsed once here, moves and hints never look at strings
+            byte[] heights = new byte[boardsRow * boardsCol];
             Coordinates tipperPos = new Coordinates(Integer.parseInt(fields[2]), Integer.parseInt(fields[3]));
             Coordinates goalCratePos = new Coordinates(Integer.parseInt(fields[4]), Integer.parseInt(fields[5]));
             int row = 0;
@@ -187,12 +391,16 @@ public class TipOverModel {
                 }
                 fields = line.split("\\s+");
                 for (int col = 0; col < fields.length; col++) {
-                    board.set(fields[col], row, col);
+                    heights[row * boardsCol + col] = Byte.parseByte(fields[col]);
                 }
                 row++;
             }
-            this.currentConfig = new TipOverConfig(board, tipperPos, goalCratePos, false);
+            this.currentConfig = new TipOverConfig(boardsRow, boardsCol, heights, tipperPos, goalCratePos, false);
             this.reloadConfig = this.currentConfig;
+            // configurations are equal regardless of their goal, so a path of the old board must not be reused
+            this.hintPath = new ArrayList<>();
+            this.hintIndex.clear();
+            buildDistances();
             announce(null);
         }
     }
@@ -202,7 +410,8 @@ public class TipOverModel {
      * Will set the currentConfig to point back at the reloadConfig. Allows player to start over using the most recent
      * board loaded in.
      */
-    public void reload() {
+    public synchronized void reload() {
+        cancelHint();
         this.currentConfig = this.reloadConfig;
         announce(null);
     }
@@ -219,9 +428,9 @@ public class TipOverModel {
     }
 
     /**
-     * Announce to observers the model has changed;
+     * Announce to observers the model has changed; observers are told while the model is locked
      */
-    private void announce(String arg) {
+    private synchronized void announce(String arg) {
         for (var obs : this.observers) {
             obs.update(this, arg);
         }
@@ -200,6 +200,14 @@ public class TipOverPTUI implements Observer<TipOverModel, Object> {
                 System.out.println("\nI Won !!");
             }
         }
+        // The move left the goal out of reach
+        if (o != null && o.equals("unsolvable")) {
+            System.out.print("\nThe goal can no longer be reached.");
+        }
+        // The solver gave up before finding the next move
+        if (o != null && o.equals("budget")) {
+            System.out.print("\nNo hint found within the search limits.");
+        }
         // Player reaches solution
         if (this.model.getCurrentConfig().isSolution() && o == null) {
             System.out.println("\nYou Won!!");
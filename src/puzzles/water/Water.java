@@ -1,6 +1,9 @@
 package puzzles.water;
 
 import solver.Configuration;
+import solver.SearchBudget;
+import solver.SearchResult;
+import solver.SolveCache;
 import solver.Solver;
 
 import java.util.ArrayList;
@@ -39,12 +42,13 @@ public class Water {
             Configuration water = new WaterConfiguration(buckets, current, amount);
 
             //Create an instance of a ClockSolver and store its shortestPath List into a collection.
-            Solver solver = new Solver();
-            Collection<Configuration> shortestPath = solver.getShortestPath(water);
+            // Solved puzzles are remembered for the rest of the program
+            SearchResult result = SolveCache.shared().solve(water, Solver::new, SearchBudget.UNLIMITED);
+            Collection<Configuration> shortestPath = result.getPath();
 
             //Display both total configurations and unique configurations
-            System.out.println("Total configs: " + solver.getTotalConfigs());
-            System.out.println("Unique configs: " + solver.getUniqueConfigs());
+            System.out.println("Total configs: " + result.getTotalConfigs());
+            System.out.println("Unique configs: " + result.getUniqueConfigs());
 
             //If the List constructed at the end of BFS is empty it means we did not find a match
             //Otherwise we want to print every step with its correlating ClockConfiguration
@@ -1,9 +1,14 @@
 package puzzles.water;
 
 import solver.Configuration;
+import solver.EncodableConfiguration;
+import solver.Move;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 
 
 /**
@@ -12,11 +17,10 @@ import java.util.List;
  *
  * @author Miguel Reyes
  */
-public class WaterConfiguration implements Configuration {
+public class WaterConfiguration implements EncodableConfiguration {
     private int goal;
     private List<Integer> buckets;
     private List<Integer> current;
-    private List<Configuration> neighbors;
 
     /**
      *
@@ -47,23 +51,26 @@ public class WaterConfiguration implements Configuration {
 
     @Override
     public List<Configuration> getNeighbors() {
-        this.neighbors = new LinkedList<>();
+        List<Configuration> neighbors = new LinkedList<>();
+        forEachNeighbor(neighbors::add);
+        return neighbors;
+    }
+
+    @Override
+    public void forEachNeighbor(Consumer<Configuration> action) {
         List<Integer> currConf;
-        Configuration c1;
         for (int i = 0; i < this.current.size(); ++i) {
             //Fills Bucket
             if (this.current.get(i) == 0) {
                 currConf = new LinkedList<>(this.current);
                 currConf.set(i, buckets.get(i));
-                c1 = new WaterConfiguration(this.buckets, currConf, goal);
-                this.neighbors.add(c1);
+                action.accept(new WaterConfiguration(this.buckets, currConf, goal));
             }
             //Drains bucket
             else if (this.current.get(i).equals(this.buckets.get(i))) {
                 currConf = new LinkedList<>(this.current);
                 currConf.set(i, 0);
-                c1 = new WaterConfiguration(this.buckets, currConf, goal);
-                this.neighbors.add(c1);
+                action.accept(new WaterConfiguration(this.buckets, currConf, goal));
             }
             //Transfers water from bucket to bucket under the conditions one is being completely filled or drained
             for (int j = 0; j < this.current.size(); ++j) {
@@ -77,12 +84,122 @@ public class WaterConfiguration implements Configuration {
                         currConf.set(j, buckets.get(j));
                         currConf.set(i, currConf.get(i) - currentCapacity);
                     }
-                    c1 = new WaterConfiguration(this.buckets, currConf, goal);
-                    this.neighbors.add(c1);
+                    action.accept(new WaterConfiguration(this.buckets, currConf, goal));
                 }
             }
         }
-        return this.neighbors;
+    }
+
+    /**
+     * The same moves as forEachNeighbor, worked out on the code directly: a bucket changing by some amount changes the
+     * code by that amount times the bucket's digit weight.
+     */
+    @Override
+    public void forEachNeighborCode(LongConsumer action) {
+        int size = this.current.size();
+        long[] weights = new long[size];
+        long code = 0;
+        long weight = 1;
+        for (int i = 0; i < size; ++i) {
+            weights[i] = weight;
+            code += this.current.get(i) * weight;
+            weight *= this.buckets.get(i) + 1;
+        }
+        for (int i = 0; i < size; ++i) {
+            int amountI = this.current.get(i);
+            int capacityI = this.buckets.get(i);
+            //Fills Bucket
+            if (amountI == 0) {
+                action.accept(code + capacityI * weights[i]);
+            }
+            //Drains bucket
+            else if (amountI == capacityI) {
+                action.accept(code - capacityI * weights[i]);
+            }
+            //Transfers either all of bucket i or just enough to fill bucket j
+            for (int j = 0; j < size; ++j) {
+                if (j != i) {
+                    int moved = Math.min(amountI, this.buckets.get(j) - this.current.get(j));
+                    action.accept(code - moved * weights[i] + moved * weights[j]);
+                }
+            }
+        }
+    }
+
+    /**
+     * The bucket amounts can be packed as a number whose i-th digit is the amount in bucket i, written in a base one
+     * more than that bucket's capacity. This only fits when the product of those bases fits in a long.
+     */
+    @Override
+    public boolean isEncodable() {
+        try {
+            long states = 1;
+            for (Integer capacity : this.buckets) {
+                states = Math.multiplyExact(states, capacity + 1);
+            }
+            return true;
+        } catch (ArithmeticException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public long encode() {
+        long code = 0;
+        for (int i = this.current.size() - 1; i >= 0; --i) {
+            code = code * (this.buckets.get(i) + 1) + this.current.get(i);
+        }
+        return code;
+    }
+
+    @Override
+    public boolean isSolution(long code) {
+        for (Integer capacity : this.buckets) {
+            if (code % (capacity + 1) == this.goal) {
+                return true;
+            }
+            code /= capacity + 1;
+        }
+        return false;
+    }
+
+    @Override
+    public WaterConfiguration decode(long code) {
+        List<Integer> amounts = new ArrayList<>(this.buckets.size());
+        for (Integer capacity : this.buckets) {
+            amounts.add((int) (code % (capacity + 1)));
+            code /= capacity + 1;
+        }
+        return new WaterConfiguration(this.buckets, amounts, this.goal);
+    }
+
+    /**
+     * Works the move out from which buckets changed: one bucket filling or draining, or one pouring into another.
+     *
+     * @param next a neighbor of this configuration
+     * @return the move that leads to it
+     */
+    @Override
+    public Move describeMove(Configuration next) {
+        List<Integer> after = ((WaterConfiguration) next).current;
+        int from = -1;
+        int to = -1;
+        for (int i = 0; i < this.current.size(); i++) {
+            if (after.get(i) < this.current.get(i)) {
+                from = i;
+            } else if (after.get(i) > this.current.get(i)) {
+                to = i;
+            }
+        }
+        if (from >= 0 && to >= 0) {
+            return new Move("bucket " + from, "pour into " + to);
+        }
+        return to >= 0 ? new Move("bucket " + to, "fill") : new Move("bucket " + from, "drain");
+    }
+
+    @Override
+    public String canonicalKey() {
+        return "Water " + this.goal + " " + this.buckets + " " + this.current;
     }
 
     @Override
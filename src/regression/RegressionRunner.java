@@ -0,0 +1,372 @@
+package regression;
+
+import puzzles.PuzzleFiles;
+import puzzles.water.WaterConfiguration;
+import solver.AStarSolver;
+import solver.ChunkedFrontier;
+import solver.Configuration;
+import solver.EncodableConfiguration;
+import solver.ExternalSolver;
+import solver.IDAStarSolver;
+import solver.OffHeapStateTable;
+import solver.ParallelSolver;
+import solver.SearchBudget;
+import solver.SearchResult;
+import solver.Solver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+/**
+ * Replays every board in the data directory and checks the solver against the recorded runs in the output directory.
+ * The boards are solved in parallel and each verdict is printed as soon as its board finishes, so a slow board does not
+ * hold back the others.
+ * <p>
+ * A board passes when it is still solvable or still unsolvable, its shortest path has the same number of steps, and the
+ * total and unique counts are the recorded ones, so a clean run means the search has not changed. A change that is
+ * meant to alter the counts re-records the runs it affects.
+ * <p>
+ * Every board is also solved by each of the {@link #ALTERNATES}, the other solvers and data structures, which must
+ * agree with the Solver as far as their searches are alike; a board fails if any of them does not.
+ * <p>
+ * Last, a Water puzzle with no solution checks that the searches which keep no visited set, like IDA*, still finish
+ * and report it.
+ *
+ * @author Miguel Reyes
+ */
+public class RegressionRunner {
+
+    /**
+     * What a recorded run printed.
+     *
+     * @param totalConfigs  the Total configs line
+     * @param uniqueConfigs the Unique configs line
+     * @param steps         the number of moves on the path, or -1 for No Solution
+     */
+    record Expected(long totalConfigs, long uniqueConfigs, int steps) {
+    }
+
+    /**
+     * The verdict on one board.
+     *
+     * @param name    the board's file name
+     * @param passed  whether the board passed
+     * @param message what was found
+     */
+    record Verdict(String name, boolean passed, String message) {
+    }
+
+    /**
+     * How closely another solver must agree with the Solver on a board. The path length must always match.
+     */
+    enum Agreement {
+        /** The search is the Solver's own, so the total and unique counts must match as well */
+        COUNTS,
+        /**
+         * Whole levels are expanded before a solution is looked for, so the counts must match the Solver's once it had
+         * expanded every level short of the solution, or once it finished on a board with no solution
+         */
+        LEVELS,
+        /**
+         * Whole levels are written before the next is searched, so the unique count must match the Solver's once it had
+         * expanded every level short of the solution; the solution's own level is only partly expanded, so the total
+         * is not compared
+         */
+        UNIQUE_LEVELS,
+        /**
+         * Only the path is known to match on a board with a solution, but a board with no solution has every reachable
+         * configuration searched, so the unique count must match the Solver's
+         */
+        REACHABLE,
+        /** The counts mean something else, so only the path must match */
+        PATH
+    }
+
+    /**
+     * What a search found.
+     *
+     * @param steps  the number of moves on the path, or -1 for no solution
+     * @param total  configurations generated, duplicates included
+     * @param unique distinct configurations reached
+     */
+    record Outcome(int steps, long total, long unique) {
+
+        /**
+         * Describes the outcome of a search that returned a path.
+         *
+         * @param path   the path, empty if there is none
+         * @param total  configurations generated, duplicates included
+         * @param unique distinct configurations reached
+         * @return the outcome
+         */
+        static Outcome of(Collection<Configuration> path, long total, long unique) {
+            return new Outcome(path.size() - 1, total, unique);
+        }
+    }
+
+    /**
+     * The Solver's search of a board, checked against the recorded run and the alternates.
+     *
+     * @param result the Solver's result
+     * @param levels the Solver's counts once it had expanded none, one, two and so on of the levels, each with that
+     *               number of levels as its steps
+     */
+    record Reference(SearchResult result, List<Outcome> levels) {
+    }
+
+    /**
+     * Another way of solving a board, checked against the Solver.
+     *
+     * @param name      what the verdict calls it
+     * @param solve     solves a board, given the Solver's result on it, or returns null to leave the board out
+     * @param agreement what must match the Solver
+     */
+    record Alternate(String name, BiFunction<Configuration, SearchResult, Outcome> solve, Agreement agreement) {
+    }
+
+    // Room for a million states in each off-heap table, far more than any board reaches
+    private static final long OFF_HEAP_BYTES = 1 << 24;
+
+    /**
+     * The solvers and data structures checked against the Solver on every board.
+     */
+    static final List<Alternate> ALTERNATES = List.of(
+            // encodable searches keep their codes in a LongFrontier, so the chunked frontier needs an object search
+            new Alternate("chunked frontier", (start, expected) -> {
+                Solver solver = new Solver(ChunkedFrontier::new);
+                solver.setEncoded(false);
+                return Outcome.of(solver.getShortestPath(start), solver.getTotalConfigs(), solver.getUniqueConfigs());
+            }, Agreement.COUNTS),
+            new Alternate("off-heap table", (start, expected) -> {
+                Solver solver = new Solver();
+                solver.setStateTableFactory(() -> new OffHeapStateTable(OFF_HEAP_BYTES));
+                return Outcome.of(solver.getShortestPath(start), solver.getTotalConfigs(), solver.getUniqueConfigs());
+            }, Agreement.COUNTS),
+            new Alternate("parallel", (start, expected) -> {
+                ParallelSolver solver = new ParallelSolver();
+                return Outcome.of(solver.getShortestPath(start), solver.getTotalConfigs(), solver.getUniqueConfigs());
+            }, Agreement.LEVELS),
+            new Alternate("external", (start, expected) -> {
+                if (!(start instanceof EncodableConfiguration encodable) || !encodable.isEncodable()) {
+                    return null;
+                }
+                ExternalSolver solver = new ExternalSolver();
+                try {
+                    return Outcome.of(solver.getShortestPath(encodable), solver.getTotalConfigs(),
+                            solver.getUniqueConfigs());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, Agreement.UNIQUE_LEVELS),
+            new Alternate("a*", (start, expected) -> {
+                AStarSolver solver = new AStarSolver();
+                return Outcome.of(solver.getShortestPath(start), solver.getTotalConfigs(), solver.getUniqueConfigs());
+            }, Agreement.REACHABLE),
+            // proving there is no solution means trying every path, so only boards with one are deepened, and no deeper
+            new Alternate("ida*", (start, expected) -> expected.getPathLength() == 0 ? null
+                    : Outcome.of(new IDAStarSolver(expected.getPathLength() - 1).getShortestPath(start), 0, 0),
+                    Agreement.PATH)
+    );
+
+    /**
+     * Runs the regression.
+     *
+     * @param args [0]: the data directory, "data" by default;
+     *             [1]: the directory of recorded runs, "output" by default.
+     * @throws IOException          if a directory can not be listed
+     * @throws InterruptedException if interrupted while waiting for a board
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path data = Paths.get(args.length > 0 ? args[0] : "data");
+        Path output = Paths.get(args.length > 1 ? args[1] : "output");
+
+        List<Path> recorded = new ArrayList<>();
+        for (String puzzle : new String[]{"tipover", "lunarlanding"}) {
+            try (Stream<Path> files = Files.list(output.resolve(puzzle))) {
+                files.sorted().forEach(recorded::add);
+            }
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        CompletionService<Verdict> verdicts = new ExecutorCompletionService<>(pool);
+        for (Path run : recorded) {
+            Path board = data.resolve(output.relativize(run));
+            verdicts.submit(() -> check(board, run));
+        }
+        verdicts.submit(RegressionRunner::checkUnsolvable);
+        pool.shutdown();
+
+        int checked = recorded.size() + 1;
+        int failed = 0;
+        for (int i = 0; i < checked; i++) {
+            Verdict verdict;
+            try {
+                verdict = verdicts.take().get();
+            } catch (ExecutionException e) {
+                verdict = new Verdict("?", false, "crashed: " + e.getCause());
+            }
+            if (!verdict.passed()) {
+                ++failed;
+            }
+            System.out.println((verdict.passed() ? "PASS " : "FAIL ") + verdict.name() + ": " + verdict.message());
+        }
+        System.out.println((checked - failed) + "/" + checked + " passed");
+        if (failed > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Solves one board and compares it to its recorded run.
+     *
+     * @param board the board file
+     * @param run   the recorded run
+     * @return the verdict
+     */
+    static Verdict check(Path board, Path run) {
+        String name = board.getParent().getFileName() + "/" + board.getFileName();
+        try {
+            Expected expected = parse(run);
+            Configuration start = name.startsWith("tipover") ? PuzzleFiles.loadTipOver(board)
+                    : PuzzleFiles.loadLunarLanding(board);
+            List<Outcome> levels = new ArrayList<>();
+            levels.add(new Outcome(0, 1, 1));
+            Solver solver = new Solver();
+            solver.setListener(metrics -> levels.add(new Outcome(metrics.getDepth(), metrics.getGenerated(),
+                    metrics.getUnique())));
+            SearchResult result = solver.solve(start, SearchBudget.UNLIMITED);
+            int steps = result.getPathLength() - 1;
+
+            boolean countsMatch = result.getTotalConfigs() == expected.totalConfigs()
+                    && result.getUniqueConfigs() == expected.uniqueConfigs();
+            String message = (steps < 0 ? "no solution" : steps + " steps")
+                    + (expected.steps() == steps ? "" : ", expected " + describe(expected.steps()))
+                    + ", total " + result.getTotalConfigs() + " unique " + result.getUniqueConfigs()
+                    + (countsMatch ? "" : " (recorded " + expected.totalConfigs() + " / " + expected.uniqueConfigs()
+                    + ")")
+                    + ", " + result.getElapsedMillis() + " ms";
+            List<String> disagreements = new ArrayList<>();
+            for (Alternate alternate : ALTERNATES) {
+                String disagreement = compare(alternate, start, new Reference(result, levels));
+                if (disagreement != null) {
+                    disagreements.add(disagreement);
+                }
+            }
+            if (!disagreements.isEmpty()) {
+                message += ", disagreeing: " + String.join("; ", disagreements);
+            }
+            return new Verdict(name, expected.steps() == steps && countsMatch && disagreements.isEmpty(), message);
+        } catch (IOException | RuntimeException e) {
+            return new Verdict(name, false, "could not be checked: " + e);
+        }
+    }
+
+    /**
+     * Checks that the Solver and IDA* both finish on a Water puzzle with no solution: buckets of 2 and 4 only ever hold
+     * even amounts, so 3 can not be measured. IDA* is given more moves than there are configurations, so once every
+     * path has been tried nothing is left cut off and it must report UNSOLVABLE rather than DEPTH_LIMIT.
+     *
+     * @return the verdict
+     */
+    static Verdict checkUnsolvable() {
+        String name = "water/2 4 for 3";
+        try {
+            Configuration start = new WaterConfiguration(List.of(2, 4), List.of(0, 0), 3);
+            SearchResult bfs = new Solver().solve(start, SearchBudget.UNLIMITED);
+            SearchResult ida = new IDAStarSolver(16).solve(start, SearchBudget.UNLIMITED.withMaxExpanded(1_000_000));
+            String message = "solver " + bfs.getStatus() + ", ida* " + ida.getStatus() + " after "
+                    + ida.getExpandedConfigs() + " expanded";
+            return new Verdict(name, bfs.getStatus() == SearchResult.Status.UNSOLVABLE
+                    && ida.getStatus() == SearchResult.Status.UNSOLVABLE, message);
+        } catch (RuntimeException e) {
+            return new Verdict(name, false, "could not be checked: " + e);
+        }
+    }
+
+    /**
+     * Solves a board another way and compares it to the Solver's result.
+     *
+     * @param alternate the other way of solving
+     * @param start     the board
+     * @param reference the Solver's search of the board
+     * @return what the alternate found, if it does not agree with the Solver, otherwise null
+     */
+    static String compare(Alternate alternate, Configuration start, Reference reference) {
+        SearchResult result = reference.result();
+        Outcome outcome;
+        try {
+            outcome = alternate.solve().apply(start, result);
+        } catch (RuntimeException e) {
+            return alternate.name() + " crashed: " + e;
+        }
+        if (outcome == null) {
+            return null;
+        }
+        boolean agrees = outcome.steps() == result.getPathLength() - 1;
+        // the Solver's counts where the alternate's search ended: at the end, or after the levels short of the solution
+        Outcome reached = alternate.agreement() == Agreement.COUNTS || outcome.steps() < 0
+                ? new Outcome(outcome.steps(), result.getTotalConfigs(), result.getUniqueConfigs())
+                : outcome.steps() < reference.levels().size() ? reference.levels().get(outcome.steps()) : null;
+        if (reached == null) {
+            return alternate.name() + " found " + describe(outcome.steps());
+        }
+        switch (alternate.agreement()) {
+            case COUNTS, LEVELS -> agrees &= outcome.total() == reached.total() && outcome.unique() == reached.unique();
+            case UNIQUE_LEVELS -> agrees &= outcome.unique() == reached.unique();
+            case REACHABLE -> agrees &= outcome.steps() >= 0 || outcome.unique() == reached.unique();
+            case PATH -> {
+            }
+        }
+        return agrees ? null : alternate.name() + " found " + describe(outcome.steps()) + ", total " + outcome.total()
+                + " unique " + outcome.unique();
+    }
+
+    /**
+     * Reads the counts and path length out of a recorded run.
+     *
+     * @param run the recorded run
+     * @return what it printed
+     * @throws IOException if the run can not be read or is missing its counts
+     */
+    static Expected parse(Path run) throws IOException {
+        long total = -1;
+        long unique = -1;
+        int steps = -1;
+        for (String line : Files.readAllLines(run)) {
+            if (line.startsWith("Total configs:")) {
+                total = Long.parseLong(line.substring("Total configs:".length()).trim());
+            } else if (line.startsWith("Unique configs:")) {
+                unique = Long.parseLong(line.substring("Unique configs:".length()).trim());
+            } else if (line.startsWith("Step ")) {
+                ++steps;
+            }
+        }
+        if (total < 0 || unique < 0) {
+            throw new IOException(run + " has no counts");
+        }
+        return new Expected(total, unique, steps);
+    }
+
+    /**
+     * Describes a path length.
+     *
+     * @param steps the number of moves, or -1 for none
+     * @return the description
+     */
+    private static String describe(int steps) {
+        return steps < 0 ? "no solution" : steps + " steps";
+    }
+}
@@ -0,0 +1,130 @@
+package solver;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * A best-first (A*) alternative to the Solver. Configurations are expanded in order of moves made so far plus
+ * {@link Configuration#heuristic()}, so when the heuristic never overestimates the remaining moves the path returned is
+ * a shortest one, and far fewer configurations are expanded than a plain BFS would.
+ *
+ * @author Miguel Reyes
+ */
+public class AStarSolver {
+
+    /**
+     * An entry in the priority frontier.
+     *
+     * @param conf  the configuration to expand
+     * @param cost  number of moves from the start to conf
+     * @param f     cost plus the heuristic of conf
+     * @param order when the entry was added, so ties are expanded first come first served
+     */
+    private record Node(Configuration conf, int cost, int f, long order) {
+    }
+
+    // Expand the lowest estimate first, and on ties the configuration that is furthest along
+    private static final Comparator<Node> PRIORITY = Comparator.comparingInt(Node::f)
+            .thenComparing(Comparator.comparingInt(Node::cost).reversed())
+            .thenComparingLong(Node::order);
+
+    // This is the number of configurations that have been reached at the end of the search
+    private int uniqueConfigs;
+
+    // This is every configuration including the duplicates from the search
+    private int totalConfigs = 1;
+
+    // This is the number of configurations taken off the frontier and expanded
+    private int expandedConfigs;
+
+    /**
+     * This will perform the A* search and check to see if a solution exists. It will also set the total, unique and
+     * expanded configs after performing the search.
+     *
+     * @param conf - the start configuration
+     * @return - a collection of configurations, empty if no path exists
+     */
+    public Collection<Configuration> getShortestPath(Configuration conf) {
+        this.totalConfigs = 1;
+        this.expandedConfigs = 0;
+        PriorityQueue<Node> frontier = new PriorityQueue<>(PRIORITY);
+        Map<Configuration, Configuration> predecessors = new HashMap<>();
+        Map<Configuration, Integer> costs = new HashMap<>();
+        long order = 0;
+
+        predecessors.put(conf, conf);
+        costs.put(conf, 0);
+        frontier.add(new Node(conf, 0, conf.heuristic(), order++));
+
+        Configuration goal = null;
+        while (!frontier.isEmpty()) {
+            Node current = frontier.remove();
+            // a cheaper way to this configuration was found after this entry was added
+            if (current.cost() > costs.get(current.conf())) {
+                continue;
+            }
+            if (current.conf().isSolution()) {
+                goal = current.conf();
+                break;
+            }
+            ++this.expandedConfigs;
+            int cost = current.cost() + 1;
+            for (Configuration nbr : current.conf().getNeighbors()) {
+                ++this.totalConfigs;
+                Integer known = costs.get(nbr);
+                // reopen a configuration when a cheaper way to it turns up, the heuristic may not be consistent
+                if (known == null || cost < known) {
+                    costs.put(nbr, cost);
+                    predecessors.put(nbr, current.conf());
+                    frontier.add(new Node(nbr, cost, cost + nbr.heuristic(), order++));
+                }
+            }
+        }
+        this.uniqueConfigs = costs.size();
+
+        List<Configuration> path = new LinkedList<>();
+        if (goal != null) {
+            Configuration currConf = goal;
+            Configuration next = predecessors.get(currConf);
+            path.add(currConf);
+            while (!next.equals(currConf)) {
+                path.add(0, next);
+                currConf = next;
+                next = predecessors.get(currConf);
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Returns the total number of unique configurations.
+     *
+     * @return Returns the total number of unique configurations.
+     */
+    public int getUniqueConfigs() {
+        return uniqueConfigs;
+    }
+
+    /**
+     * Returns the total number of configurations including duplicates.
+     *
+     * @return Returns the total number of configurations including duplicates.
+     */
+    public int getTotalConfigs() {
+        return totalConfigs;
+    }
+
+    /**
+     * Returns the number of configurations that were expanded.
+     *
+     * @return Returns the number of configurations that were expanded.
+     */
+    public int getExpandedConfigs() {
+        return expandedConfigs;
+    }
+}
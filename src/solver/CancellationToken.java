@@ -0,0 +1,29 @@
+package solver;
+
+/**
+ * A flag shared between a running search and whoever started it. Cancelling it asks the search to stop at its next
+ * expansion; the search then returns whatever it gathered so far rather than throwing.
+ *
+ * @author Miguel Reyes
+ */
+public class CancellationToken {
+
+    // Written by the cancelling thread and read by the searching one
+    private volatile boolean cancelled;
+
+    /**
+     * Asks every search using this token to stop. Cancelling more than once has no further effect.
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    /**
+     * Returns whether cancel has been called
+     *
+     * @return True if the token has been cancelled
+     */
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+}
@@ -0,0 +1,124 @@
+package solver;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A frontier made of fixed size array chunks chained together. Unlike {@link RingBufferFrontier} it never copies
+ * existing elements when it grows, and chunks are released as soon as they have been drained, so it suits very large
+ * searches where a doubling copy of the whole frontier would be too expensive.
+ *
+ * @param <E> the type of element held in the frontier
+ * @author Miguel Reyes
+ */
+public class ChunkedFrontier<E> implements Frontier<E> {
+
+    /**
+     * Number of elements in a chunk when none is given.
+     */
+    private static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    /**
+     * One link of the chain.
+     */
+    private static final class Chunk {
+        private final Object[] elements;
+        private Chunk next;
+
+        private Chunk(int chunkSize) {
+            this.elements = new Object[chunkSize];
+        }
+    }
+
+    /**
+     * Number of elements each chunk holds.
+     */
+    private final int chunkSize;
+
+    /**
+     * The chunk elements are removed from and the index of the front element in it.
+     */
+    private Chunk headChunk;
+    private int headIndex;
+
+    /**
+     * The chunk elements are added to and the index of the next free slot in it.
+     */
+    private Chunk tailChunk;
+    private int tailIndex;
+
+    /**
+     * Number of elements currently stored.
+     */
+    private int size;
+
+    /**
+     * A drained chunk kept around so the next chunk does not have to be allocated.
+     */
+    private Chunk spare;
+
+    /**
+     * Creates an empty frontier using the default chunk size.
+     */
+    public ChunkedFrontier() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates an empty frontier using the given chunk size.
+     *
+     * @param chunkSize number of elements per chunk
+     */
+    public ChunkedFrontier(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        this.headChunk = new Chunk(chunkSize);
+        this.tailChunk = this.headChunk;
+    }
+
+    @Override
+    public void add(E element) {
+        if (this.tailIndex == this.chunkSize) {
+            Chunk chunk = this.spare != null ? this.spare : new Chunk(this.chunkSize);
+            this.spare = null;
+            this.tailChunk.next = chunk;
+            this.tailChunk = chunk;
+            this.tailIndex = 0;
+        }
+        this.tailChunk.elements[this.tailIndex++] = element;
+        ++this.size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E remove() {
+        if (this.size == 0) {
+            throw new NoSuchElementException();
+        }
+        if (this.headIndex == this.chunkSize) {
+            // The head chunk is drained, move on to the next one and keep the old one as a spare
+            Chunk drained = this.headChunk;
+            this.headChunk = drained.next;
+            this.headIndex = 0;
+            drained.next = null;
+            this.spare = drained;
+        }
+        E element = (E) this.headChunk.elements[this.headIndex];
+        this.headChunk.elements[this.headIndex++] = null;
+        --this.size;
+        if (this.size == 0) {
+            // Everything has been consumed, so start writing from the beginning of the head chunk again
+            this.tailChunk = this.headChunk;
+            this.headChunk.next = null;
+            this.headIndex = 0;
+            this.tailIndex = 0;
+        }
+        return element;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+}
@@ -1,6 +1,7 @@
 package solver;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Configuration abstraction for the solver algorithm
@@ -25,4 +26,73 @@ public interface Configuration {
      * @return A list of configuration(Clock or Water configurations)
      */
     List<Configuration> getNeighbors();
+
+    /**
+     * Hands each neighbor of a configuration to the given action, in the same order as getNeighbors, without having to
+     * collect them in a list first. Calls getNeighbors by default.
+     *
+     * @param action what to do with each neighbor
+     */
+    default void forEachNeighbor(Consumer<Configuration> action) {
+        getNeighbors().forEach(action);
+    }
+
+    /**
+     * Estimates how many moves are left to reach a solution, used by the {@link AStarSolver} to decide what to expand
+     * next. The estimate must never be more than the real number of moves for the AStarSolver to return a shortest
+     * path. Returns 0 by default, which makes the AStarSolver behave like a BFS.
+     *
+     * @return A lower bound on the number of moves to a solution
+     */
+    default int heuristic() {
+        return 0;
+    }
+
+    /**
+     * Describes the whole puzzle this configuration stands for, including anything equals leaves out such as the goal,
+     * so two configurations with the same key always have the same shortest path. Used by the {@link SolveCache} to
+     * share results between searches. Returns null by default, which means results are never cached.
+     *
+     * @return a key identifying the puzzle exactly, or null
+     */
+    default String canonicalKey() {
+        return null;
+    }
+
+    /**
+     * Describes the move from this configuration to one of its neighbors. Puzzles should override this to name the
+     * piece and direction. By default the move is named by the neighbor's position in getNeighbors.
+     *
+     * @param next a neighbor of this configuration
+     * @return the move that leads to it
+     */
+    default Move describeMove(Configuration next) {
+        int index = 0;
+        for (Configuration nbr : getNeighbors()) {
+            if (nbr.equals(next)) {
+                return new Move("neighbor", Integer.toString(index));
+            }
+            ++index;
+        }
+        throw new IllegalArgumentException(next + " is not a neighbor");
+    }
+
+    /**
+     * Makes a move described by describeMove. By default the neighbors are searched for the one the move describes.
+     * Puzzles with a cheaper way to make a single move should override this.
+     *
+     * @param move a move from this configuration
+     * @return the neighbor the move leads to
+     */
+    default Configuration applyMove(Move move) {
+        if (move.piece().equals("neighbor")) {
+            return getNeighbors().get(Integer.parseInt(move.direction()));
+        }
+        for (Configuration nbr : getNeighbors()) {
+            if (describeMove(nbr).equals(move)) {
+                return nbr;
+            }
+        }
+        throw new IllegalArgumentException(move + " can not be made");
+    }
 }
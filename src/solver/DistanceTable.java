@@ -0,0 +1,236 @@
+package solver;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * The number of moves from every configuration reachable from a start to its nearest solution. The table is built
+ * once, by enumerating the reachable codes forwards while recording every move, flipping the moves around, and then
+ * sweeping backwards from all the solutions at once. Afterwards a shortest path from any reachable configuration is
+ * found without a search, by always stepping to a neighbor one move closer. Configurations the puzzle treats as
+ * interchangeable, see {@link EncodableConfiguration#canonicalize(long)}, share a single entry.
+ *
+ * @author Miguel Reyes
+ */
+public class DistanceTable {
+
+    /**
+     * The distance of a configuration that can not reach a solution.
+     */
+    public static final int NO_PATH = -1;
+
+    // Maps each canonical code to its dense index
+    private final StateTable indices = new HeapStateTable();
+
+    // The configuration the table was built from, which canonicalizes codes
+    private final EncodableConfiguration start;
+
+    // The first code found for each index, in the order they were found, only needed while building
+    private long[] codes = new long[1 << 10];
+
+    // Moves out of each state in compressed rows: the targets of state i are targets[offsets[i]] to targets[offsets[i+1]]
+    private int[] offsets = new int[(1 << 10) + 1];
+    private int[] targets = new int[1 << 12];
+    private int moves;
+
+    // Moves from each state to its nearest solution, NO_PATH if it has none
+    private int[] distances;
+
+    private int size;
+
+    // Set once the table is too big or the build is cancelled, which abandons it
+    private boolean overflow;
+
+    private DistanceTable(EncodableConfiguration start) {
+        this.start = start;
+    }
+
+    /**
+     * Builds the table for every configuration reachable from the start.
+     *
+     * @param start     the start configuration
+     * @param maxStates the most configurations the table may hold
+     * @return the table, or null if the start is not encodable or more than maxStates configurations are reachable
+     */
+    public static DistanceTable build(EncodableConfiguration start, int maxStates) {
+        return build(start, maxStates, null);
+    }
+
+    /**
+     * Builds the table for every configuration reachable from the start, unless the build is cancelled first. The
+     * token is checked before each configuration is expanded, so a cancelled build stops almost at once.
+     *
+     * @param start     the start configuration
+     * @param maxStates the most configurations the table may hold
+     * @param token     cancels the build, or null if it can not be cancelled
+     * @return the table, or null if the start is not encodable, more than maxStates configurations are reachable or
+     * the build was cancelled
+     */
+    public static DistanceTable build(EncodableConfiguration start, int maxStates, CancellationToken token) {
+        if (!start.isEncodable()) {
+            return null;
+        }
+        DistanceTable table = new DistanceTable(start);
+        table.enumerate(maxStates, token);
+        if (table.overflow) {
+            return null;
+        }
+        table.sweep();
+        return table;
+    }
+
+    /**
+     * Finds every reachable code breadth first, giving each a dense index and recording its moves. Finding more than
+     * maxStates codes, or the token being cancelled, stops it at once.
+     *
+     * @param maxStates the most configurations the table may hold
+     * @param token     cancels the build, or null
+     */
+    private void enumerate(int maxStates, CancellationToken token) {
+        long startCode = this.start.encode();
+        add(startCode);
+        for (int state = 0; state < this.size && !this.overflow; state++) {
+            if (token != null && token.isCancelled()) {
+                this.overflow = true;
+                break;
+            }
+            this.offsets[state] = this.moves;
+            EncodableConfiguration current = state == 0 ? this.start : this.start.decode(this.codes[state]);
+            current.forEachNeighborCode(nbrCode -> {
+                long index = this.indices.get(this.start.canonicalize(nbrCode));
+                if (index == StateTable.NOT_FOUND) {
+                    if (this.size == maxStates) {
+                        this.overflow = true;
+                        return;
+                    }
+                    index = add(nbrCode);
+                }
+                if (this.moves == this.targets.length) {
+                    this.targets = Arrays.copyOf(this.targets, this.moves * 2);
+                }
+                this.targets[this.moves++] = (int) index;
+            });
+        }
+        this.offsets[this.size] = this.moves;
+    }
+
+    /**
+     * Gives a code the next dense index.
+     *
+     * @param code a code not yet in the table
+     * @return its index
+     */
+    private int add(long code) {
+        if (this.size == this.codes.length) {
+            this.codes = Arrays.copyOf(this.codes, this.size * 2);
+            this.offsets = Arrays.copyOf(this.offsets, this.size * 2 + 1);
+        }
+        this.indices.putIfAbsent(this.start.canonicalize(code), this.size);
+        this.codes[this.size] = code;
+        return this.size++;
+    }
+
+    /**
+     * Turns the recorded moves around and runs a breadth first search backwards from every solution at once.
+     */
+    private void sweep() {
+        // count the moves into each state, then lay the reversed moves out in compressed rows
+        int[] reverseOffsets = new int[this.size + 1];
+        for (int move = 0; move < this.moves; move++) {
+            reverseOffsets[this.targets[move] + 1]++;
+        }
+        for (int state = 0; state < this.size; state++) {
+            reverseOffsets[state + 1] += reverseOffsets[state];
+        }
+        int[] sources = new int[this.moves];
+        int[] filled = Arrays.copyOf(reverseOffsets, this.size);
+        for (int state = 0; state < this.size; state++) {
+            for (int move = this.offsets[state]; move < this.offsets[state + 1]; move++) {
+                sources[filled[this.targets[move]]++] = state;
+            }
+        }
+        this.targets = null;
+        this.offsets = null;
+
+        this.distances = new int[this.size];
+        Arrays.fill(this.distances, NO_PATH);
+        int[] queue = new int[this.size];
+        int head = 0;
+        int tail = 0;
+        for (int state = 0; state < this.size; state++) {
+            if (this.start.isSolution(this.codes[state])) {
+                this.distances[state] = 0;
+                queue[tail++] = state;
+            }
+        }
+        this.codes = null;
+        while (head < tail) {
+            int state = queue[head++];
+            for (int move = reverseOffsets[state]; move < reverseOffsets[state + 1]; move++) {
+                int source = sources[move];
+                if (this.distances[source] == NO_PATH) {
+                    this.distances[source] = this.distances[state] + 1;
+                    queue[tail++] = source;
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks to see if a configuration was reachable from the start the table was built from.
+     *
+     * @param conf a configuration of the same puzzle
+     * @return True if the table knows its distance
+     */
+    public boolean contains(EncodableConfiguration conf) {
+        return this.indices.get(this.start.canonicalize(conf.encode())) != StateTable.NOT_FOUND;
+    }
+
+    /**
+     * Returns the number of moves from a configuration to its nearest solution
+     *
+     * @param code the code of a configuration in the table
+     * @return the distance, NO_PATH if it can not reach a solution or is not in the table
+     */
+    public int getDistance(long code) {
+        long index = this.indices.get(this.start.canonicalize(code));
+        return index == StateTable.NOT_FOUND ? NO_PATH : this.distances[(int) index];
+    }
+
+    /**
+     * Walks a shortest path from a configuration in the table by always stepping to a neighbor one move closer.
+     *
+     * @param conf a configuration in the table
+     * @return the path from conf to a solution, empty if there is none
+     */
+    public List<Configuration> getShortestPath(EncodableConfiguration conf) {
+        List<Configuration> path = new LinkedList<>();
+        int distance = getDistance(conf.encode());
+        if (distance == NO_PATH) {
+            return path;
+        }
+        Configuration current = conf;
+        path.add(current);
+        while (distance > 0) {
+            for (Configuration nbr : current.getNeighbors()) {
+                if (getDistance(((EncodableConfiguration) nbr).encode()) == distance - 1) {
+                    current = nbr;
+                    break;
+                }
+            }
+            path.add(current);
+            --distance;
+        }
+        return path;
+    }
+
+    /**
+     * Returns the number of configurations in the table
+     *
+     * @return the number of configurations
+     */
+    public int size() {
+        return this.size;
+    }
+}
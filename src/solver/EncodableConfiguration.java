@@ -0,0 +1,75 @@
+package solver;
+
+import java.util.function.LongConsumer;
+
+/**
+ * A configuration that can be packed into a single long. When the start configuration implements this, the Solver
+ * keeps codes in its frontier and visited table instead of whole configuration objects, and only decodes a
+ * configuration when it is about to be expanded.
+ *
+ * @author Miguel Reyes
+ */
+public interface EncodableConfiguration extends Configuration {
+
+    /**
+     * Checks to see if every configuration reachable from this one fits in a non-negative long. Puzzles with very
+     * large boards return False and are searched with whole objects instead.
+     *
+     * @return True if encode can be used, False otherwise
+     */
+    default boolean isEncodable() {
+        return true;
+    }
+
+    /**
+     * Packs this configuration into a non-negative long. Two configurations of the same puzzle must have the same code
+     * exactly when they are equal.
+     *
+     * @return the code for this configuration
+     */
+    long encode();
+
+    /**
+     * Unpacks a code produced by {@link #encode()} on a configuration of the same puzzle as this one.
+     *
+     * @param code a code produced by encode
+     * @return the configuration the code stands for
+     */
+    EncodableConfiguration decode(long code);
+
+    /**
+     * Checks to see if the configuration a code stands for is a solution, so the Solver can test neighbors without
+     * decoding them. Puzzles should override this to look at the code directly. Decodes the code by default.
+     *
+     * @param code a code produced by encode on a configuration of the same puzzle as this one
+     * @return True if the code stands for a solution, False otherwise
+     */
+    default boolean isSolution(long code) {
+        return decode(code).isSolution();
+    }
+
+    /**
+     * Hands the code of each neighbor to the given action, in the same order as getNeighbors. Puzzles should override
+     * this to work the codes out directly, so the Solver can throw away neighbors it has already visited without a
+     * neighbor object ever being built. Encodes each of getNeighbors by default.
+     *
+     * @param action what to do with each neighbor's code
+     */
+    default void forEachNeighborCode(LongConsumer action) {
+        forEachNeighbor(nbr -> action.accept(((EncodableConfiguration) nbr).encode()));
+    }
+
+    /**
+     * Maps a code to one code shared by every configuration the puzzle treats as interchangeable with it, such as
+     * boards that only differ by which of two identical pieces stands where. Interchangeable configurations must have
+     * the same solutions and interchangeable neighbors. The Solver records visited configurations under this code, but
+     * keeps the codes it actually reached in its paths, so every step of a path is still a real move. Returns the code
+     * itself by default.
+     *
+     * @param code a code produced by encode on a configuration of the same puzzle as this one
+     * @return the canonical code
+     */
+    default long canonicalize(long code) {
+        return code;
+    }
+}
@@ -0,0 +1,495 @@
+package solver;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * A disk-backed BFS for state spaces whose frontier and visited set do not fit in memory. Each BFS level is kept as a
+ * file of sorted, distinct state codes. Neighbors of a level are collected in a memory buffer that is sorted and
+ * written out as a run file whenever it fills up; the runs are then merged, dropping duplicates and anything already
+ * present in an earlier level (delayed duplicate detection), to give the next level. No predecessors are stored: the
+ * path is recovered at the end by scanning the levels backwards for a state that leads to the next one on the path.
+ * Levels hold canonical codes, so configurations the puzzle treats as interchangeable are only searched once. Only
+ * configurations that implement {@link EncodableConfiguration} can be searched this way.
+ *
+ * @author Miguel Reyes
+ */
+public class ExternalSolver {
+
+    /**
+     * Size of the buffer used for every file read or write.
+     */
+    private static final int IO_BUFFER_BYTES = 1 << 20;
+
+    /**
+     * Number of neighbor codes collected in memory when none is given (64MB).
+     */
+    private static final int DEFAULT_BUFFER_STATES = 1 << 23;
+
+    /**
+     * Most earlier levels read at once while merging. Deeper searches check the older levels in further passes rather
+     * than holding a reader, and its buffer, open for every level.
+     */
+    private static final int MAX_LEVEL_READERS = 8;
+
+    // The directory level and run files are written to, or null to use a fresh temporary directory
+    private final Path workDir;
+
+    // Number of neighbor codes collected in memory before a sorted run is written
+    private final int bufferStates;
+
+    // This is the number of distinct configurations over every level
+    private long uniqueConfigs;
+
+    // This is every configuration including the duplicates from the search
+    private long totalConfigs = 1;
+
+    // This is the number of levels written
+    private int levels;
+
+    /**
+     * Creates a solver that works in a temporary directory with the default buffer size.
+     */
+    public ExternalSolver() {
+        this(null, DEFAULT_BUFFER_STATES);
+    }
+
+    /**
+     * Creates a solver that works in the given directory.
+     *
+     * @param workDir      where level and run files are written, or null for a temporary directory
+     * @param bufferStates number of neighbor codes kept in memory before a sorted run is written
+     */
+    public ExternalSolver(Path workDir, int bufferStates) {
+        if (bufferStates < 1) {
+            throw new IllegalArgumentException("Buffer must hold at least one state: " + bufferStates);
+        }
+        this.workDir = workDir;
+        this.bufferStates = bufferStates;
+    }
+
+    /**
+     * This will perform the BFS level by level on disk and check to see if a solution exists. It will also set the
+     * total and unique configs after performing the search. All files written are removed before returning.
+     *
+     * @param conf - the start configuration
+     * @return - a collection of configurations, empty if no path exists
+     * @throws IOException if the level files can not be written or read
+     */
+    public Collection<Configuration> getShortestPath(EncodableConfiguration conf) throws IOException {
+        this.totalConfigs = 1;
+        this.uniqueConfigs = 1;
+        this.levels = 0;
+        Path dir = this.workDir != null ? Files.createDirectories(this.workDir)
+                : Files.createTempDirectory("bfs-levels");
+        List<Path> levelFiles = new ArrayList<>();
+        List<Path> runFiles = new ArrayList<>();
+        try {
+            Path first = dir.resolve("level-0.bin");
+            try (CodeWriter writer = new CodeWriter(first)) {
+                writer.write(conf.canonicalize(conf.encode()));
+            }
+            levelFiles.add(first);
+
+            long goal = StateTable.NOT_FOUND;
+            while (goal == StateTable.NOT_FOUND) {
+                Path level = levelFiles.get(levelFiles.size() - 1);
+                // expand the whole level into sorted runs, stopping early if it holds a solution
+                RunBuffer buffer = new RunBuffer(dir, runFiles,
+                        (int) Math.min(this.bufferStates, Math.max(16, 8 * Files.size(level))));
+                try (CodeReader reader = new CodeReader(level)) {
+                    while (reader.hasNext()) {
+                        long code = reader.next();
+                        if (conf.isSolution(code)) {
+                            goal = code;
+                            break;
+                        }
+                        // neighbors arrive as codes, the callback can not throw so a failed run is kept for later
+                        conf.decode(code).forEachNeighborCode(nbrCode -> {
+                            ++this.totalConfigs;
+                            buffer.add(conf.canonicalize(nbrCode));
+                        });
+                        buffer.rethrow();
+                    }
+                }
+                if (goal != StateTable.NOT_FOUND) {
+                    break;
+                }
+                buffer.flush();
+
+                Path next = dir.resolve("level-" + levelFiles.size() + ".bin");
+                long written = mergeRuns(runFiles, levelFiles, next);
+                for (Path run : runFiles) {
+                    Files.deleteIfExists(run);
+                }
+                runFiles.clear();
+                levelFiles.add(next);
+                this.uniqueConfigs += written;
+                if (written == 0) {
+                    break;
+                }
+            }
+            this.levels = levelFiles.size();
+
+            List<Configuration> path = new LinkedList<>();
+            if (goal != StateTable.NOT_FOUND) {
+                path = constructPath(conf, levelFiles, goal);
+            }
+            return path;
+        } finally {
+            for (Path file : levelFiles) {
+                Files.deleteIfExists(file);
+            }
+            for (Path run : runFiles) {
+                Files.deleteIfExists(run);
+            }
+            if (this.workDir == null) {
+                Files.deleteIfExists(dir);
+            }
+        }
+    }
+
+    /**
+     * Sorts the buffered codes and writes them, without repeats, to a new run file.
+     *
+     * @param dir      where to put the run file
+     * @param index    number of the run within the level
+     * @param buffer   the neighbor codes
+     * @param buffered how many codes of buffer are in use
+     * @return the run file
+     * @throws IOException if the file can not be written
+     */
+    private static Path writeRun(Path dir, int index, long[] buffer, int buffered) throws IOException {
+        Arrays.sort(buffer, 0, buffered);
+        Path run = dir.resolve("run-" + index + ".bin");
+        try (CodeWriter writer = new CodeWriter(run)) {
+            for (int i = 0; i < buffered; ++i) {
+                if (i == 0 || buffer[i] != buffer[i - 1]) {
+                    writer.write(buffer[i]);
+                }
+            }
+        }
+        return run;
+    }
+
+    /**
+     * Merges the sorted runs into the next level, leaving out repeated codes and codes found in any earlier level.
+     * Every file involved is sorted, so each pass is one sequential read of its files. At most {@link
+     * #MAX_LEVEL_READERS} earlier levels are read per pass, newest first since they hold most of the repeats; the
+     * codes left over are written to a pass file and checked against the next batch of levels.
+     *
+     * @param runFiles   the sorted runs of the level being generated
+     * @param levelFiles every level found so far
+     * @param next       the file to write the new level to
+     * @return the number of codes in the new level
+     * @throws IOException if a file can not be read or written
+     */
+    private static long mergeRuns(List<Path> runFiles, List<Path> levelFiles, Path next) throws IOException {
+        List<Path> newestFirst = new ArrayList<>(levelFiles);
+        Collections.reverse(newestFirst);
+        List<Path> inputs = runFiles;
+        Path pass = null;
+        long written = 0;
+        try {
+            for (int from = 0; from < newestFirst.size(); from += MAX_LEVEL_READERS) {
+                int to = Math.min(from + MAX_LEVEL_READERS, newestFirst.size());
+                Path output = to == newestFirst.size() ? next
+                        : next.resolveSibling("pass-" + from / MAX_LEVEL_READERS + ".bin");
+                written = mergePass(inputs, newestFirst.subList(from, to), output);
+                if (pass != null) {
+                    Files.deleteIfExists(pass);
+                }
+                pass = output == next ? null : output;
+                inputs = pass == null ? inputs : List.of(pass);
+            }
+        } finally {
+            if (pass != null) {
+                Files.deleteIfExists(pass);
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Merges sorted files into one, leaving out repeated codes and codes found in any of the given levels. The inputs
+     * are merged through a heap ordered by the code at the front of each.
+     *
+     * @param inputs the sorted files to merge
+     * @param levels the earlier levels to check against
+     * @param output the file to write the merged codes to
+     * @return the number of codes written
+     * @throws IOException if a file can not be read or written
+     */
+    private static long mergePass(List<Path> inputs, List<Path> levels, Path output) throws IOException {
+        PriorityQueue<CodeReader> heap = new PriorityQueue<>(Math.max(1, inputs.size()),
+                Comparator.comparingLong(CodeReader::peek));
+        List<CodeReader> open = new ArrayList<>();
+        List<CodeReader> previous = new ArrayList<>();
+        long written = 0;
+        try (CodeWriter writer = new CodeWriter(output)) {
+            for (Path input : inputs) {
+                CodeReader reader = new CodeReader(input);
+                open.add(reader);
+                if (reader.hasNext()) {
+                    heap.add(reader);
+                }
+            }
+            for (Path level : levels) {
+                CodeReader reader = new CodeReader(level);
+                open.add(reader);
+                previous.add(reader);
+            }
+            long last = StateTable.NOT_FOUND;
+            while (!heap.isEmpty()) {
+                // take the smallest code at the front of any input
+                CodeReader smallest = heap.poll();
+                long code = smallest.next();
+                if (smallest.hasNext()) {
+                    heap.add(smallest);
+                }
+                if (code == last) {
+                    continue;
+                }
+                last = code;
+                boolean seen = false;
+                for (CodeReader level : previous) {
+                    while (level.hasNext() && level.peek() < code) {
+                        level.next();
+                    }
+                    if (level.hasNext() && level.peek() == code) {
+                        seen = true;
+                        break;
+                    }
+                }
+                if (!seen) {
+                    writer.write(code);
+                    ++written;
+                }
+            }
+        } finally {
+            for (CodeReader reader : open) {
+                reader.close();
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Walks the levels backwards from the goal, each time scanning the level before for a configuration that has the
+     * current one as a neighbor, then replays the moves from the start. Levels hold canonical codes, so the replay
+     * picks the neighbor whose canonical code is next and the path only holds moves that can really be made.
+     *
+     * @param conf       starting configuration
+     * @param levelFiles the level files, the last one holding the goal
+     * @param goal       code of the finishing configuration
+     * @return a list containing the sequence of configurations comprising the path
+     * @throws IOException if a level file can not be read
+     */
+    private static List<Configuration> constructPath(EncodableConfiguration conf, List<Path> levelFiles, long goal)
+            throws IOException {
+        long[] codes = new long[levelFiles.size()];
+        codes[codes.length - 1] = goal;
+        // the neighbor callback can not break out, so it records whether the wanted code turned up
+        boolean[] leads = {false};
+        for (int depth = codes.length - 2; depth >= 0; --depth) {
+            long wanted = codes[depth + 1];
+            try (CodeReader reader = new CodeReader(levelFiles.get(depth))) {
+                while (reader.hasNext()) {
+                    long code = reader.next();
+                    leads[0] = false;
+                    conf.decode(code).forEachNeighborCode(nbrCode -> {
+                        if (conf.canonicalize(nbrCode) == wanted) {
+                            leads[0] = true;
+                        }
+                    });
+                    if (leads[0]) {
+                        codes[depth] = code;
+                        break;
+                    }
+                }
+            }
+        }
+        List<Configuration> path = new LinkedList<>();
+        EncodableConfiguration current = conf;
+        path.add(current);
+        long[] step = new long[1];
+        for (int depth = 1; depth < codes.length; ++depth) {
+            long wanted = codes[depth];
+            step[0] = StateTable.NOT_FOUND;
+            current.forEachNeighborCode(nbrCode -> {
+                if (step[0] == StateTable.NOT_FOUND && conf.canonicalize(nbrCode) == wanted) {
+                    step[0] = nbrCode;
+                }
+            });
+            current = conf.decode(step[0]);
+            path.add(current);
+        }
+        return path;
+    }
+
+    /**
+     * Returns the total number of unique configurations.
+     *
+     * @return Returns the total number of unique configurations.
+     */
+    public long getUniqueConfigs() {
+        return uniqueConfigs;
+    }
+
+    /**
+     * Returns the total number of configurations including duplicates.
+     *
+     * @return Returns the total number of configurations including duplicates.
+     */
+    public long getTotalConfigs() {
+        return totalConfigs;
+    }
+
+    /**
+     * Returns the number of BFS levels written to disk.
+     *
+     * @return Returns the number of BFS levels written to disk.
+     */
+    public int getLevels() {
+        return levels;
+    }
+
+    /**
+     * Collects the neighbor codes of a level, growing up to its limit and then writing each full buffer out as a sorted
+     * run. It is filled from a neighbor callback, which can not throw, so a failed write is held until {@link
+     * #rethrow()}.
+     */
+    private final class RunBuffer {
+        private final Path dir;
+        private final List<Path> runFiles;
+        private long[] codes;
+        private int buffered;
+        private IOException failure;
+
+        private RunBuffer(Path dir, List<Path> runFiles, int initialStates) {
+            this.dir = dir;
+            this.runFiles = runFiles;
+            this.codes = new long[initialStates];
+        }
+
+        private void add(long code) {
+            if (this.failure != null) {
+                return;
+            }
+            if (this.buffered == this.codes.length) {
+                if (this.codes.length < bufferStates) {
+                    this.codes = Arrays.copyOf(this.codes, (int) Math.min(bufferStates, 2L * this.codes.length));
+                } else {
+                    try {
+                        flush();
+                    } catch (IOException e) {
+                        this.failure = e;
+                        return;
+                    }
+                }
+            }
+            this.codes[this.buffered++] = code;
+        }
+
+        private void rethrow() throws IOException {
+            if (this.failure != null) {
+                throw this.failure;
+            }
+        }
+
+        private void flush() throws IOException {
+            this.runFiles.add(writeRun(this.dir, this.runFiles.size(), this.codes, this.buffered));
+            this.buffered = 0;
+        }
+    }
+
+    /**
+     * Writes codes to a file through a large buffer.
+     */
+    private static final class CodeWriter implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_BYTES).order(ByteOrder.nativeOrder());
+
+        private CodeWriter(Path file) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        private void write(long code) throws IOException {
+            if (!this.buffer.hasRemaining()) {
+                flush();
+            }
+            this.buffer.putLong(code);
+        }
+
+        private void flush() throws IOException {
+            this.buffer.flip();
+            while (this.buffer.hasRemaining()) {
+                this.channel.write(this.buffer);
+            }
+            this.buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                this.channel.close();
+            }
+        }
+    }
+
+    /**
+     * Reads codes from a file through a large buffer, with one code of look ahead.
+     */
+    private static final class CodeReader implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_BYTES).order(ByteOrder.nativeOrder());
+
+        private CodeReader(Path file) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            this.buffer.flip();
+        }
+
+        private boolean hasNext() throws IOException {
+            if (this.buffer.remaining() < Long.BYTES) {
+                this.buffer.compact();
+                while (this.buffer.position() < Long.BYTES && this.channel.read(this.buffer) > 0) {
+                    // keep reading until a whole code is available or the file ends
+                }
+                this.buffer.flip();
+            }
+            return this.buffer.remaining() >= Long.BYTES;
+        }
+
+        private long peek() {
+            return this.buffer.getLong(this.buffer.position());
+        }
+
+        private long next() throws IOException {
+            if (!hasNext()) {
+                throw new IOException("Read past the end of a level file");
+            }
+            return this.buffer.getLong();
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.channel.close();
+        }
+    }
+}
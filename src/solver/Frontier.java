@@ -0,0 +1,42 @@
+package solver;
+
+/**
+ * The queue of configurations waiting to be expanded by the solver. Solver only ever needs first-in first-out access,
+ * so implementations are free to pick whatever storage keeps that cheap.
+ *
+ * @param <E> the type of element held in the frontier
+ * @author Miguel Reyes
+ */
+public interface Frontier<E> {
+
+    /**
+     * Adds an element to the back of the frontier.
+     *
+     * @param element the element to add
+     */
+    void add(E element);
+
+    /**
+     * Removes and returns the element at the front of the frontier.
+     *
+     * @return the oldest element in the frontier
+     * @throws java.util.NoSuchElementException if the frontier is empty
+     */
+    E remove();
+
+    /**
+     * Returns the number of elements waiting in the frontier.
+     *
+     * @return the number of elements waiting in the frontier
+     */
+    int size();
+
+    /**
+     * Checks to see if there is anything left to expand.
+     *
+     * @return True if the frontier is empty, False otherwise
+     */
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+}
@@ -0,0 +1,120 @@
+package solver;
+
+import java.util.Arrays;
+
+/**
+ * A {@link StateTable} kept in two parallel long arrays with open addressing and linear probing. Each visited state
+ * costs 16 bytes of array at most half full, against a HashMap entry plus the key and value objects it refers to.
+ *
+ * @author Miguel Reyes
+ */
+public class HeapStateTable implements StateTable {
+
+    /**
+     * Marks an unused slot. Codes are never negative so this can not clash with a real state.
+     */
+    private static final long EMPTY = -1;
+
+    /**
+     * Number of slots used when none is given. Must be a power of two.
+     */
+    private static final int DEFAULT_CAPACITY = 1 << 10;
+
+    private long[] states;
+    private long[] parents;
+    private int size;
+
+    /**
+     * Creates an empty table with the default capacity.
+     */
+    public HeapStateTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty table that can hold the given number of states before growing.
+     *
+     * @param expectedStates expected number of states
+     */
+    public HeapStateTable(int expectedStates) {
+        int capacity = Integer.highestOneBit(Math.max(expectedStates, 8) * 2 - 1) << 1;
+        this.states = new long[capacity];
+        this.parents = new long[capacity];
+        Arrays.fill(this.states, EMPTY);
+    }
+
+    @Override
+    public boolean putIfAbsent(long state, long parent) {
+        int mask = this.states.length - 1;
+        int slot = slot(state, mask);
+        while (this.states[slot] != EMPTY) {
+            if (this.states[slot] == state) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        this.states[slot] = state;
+        this.parents[slot] = parent;
+        // keep the table at most half full so probe sequences stay short
+        if (++this.size > this.states.length >> 1) {
+            grow();
+        }
+        return true;
+    }
+
+    @Override
+    public long get(long state) {
+        int mask = this.states.length - 1;
+        int slot = slot(state, mask);
+        while (this.states[slot] != EMPTY) {
+            if (this.states[slot] == state) {
+                return this.parents[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NOT_FOUND;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public long bytes() {
+        return 16L * this.states.length;
+    }
+
+    /**
+     * Doubles the arrays and puts every state back in.
+     */
+    private void grow() {
+        long[] oldStates = this.states;
+        long[] oldParents = this.parents;
+        this.states = new long[oldStates.length << 1];
+        this.parents = new long[oldStates.length << 1];
+        Arrays.fill(this.states, EMPTY);
+        int mask = this.states.length - 1;
+        for (int i = 0; i < oldStates.length; ++i) {
+            if (oldStates[i] != EMPTY) {
+                int slot = slot(oldStates[i], mask);
+                while (this.states[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                this.states[slot] = oldStates[i];
+                this.parents[slot] = oldParents[i];
+            }
+        }
+    }
+
+    /**
+     * Spreads a code over the table. Codes are often small or differ only in a few bits, so they are mixed first.
+     *
+     * @param state the state code
+     * @param mask  table length minus one
+     * @return the first slot to probe
+     */
+    private static int slot(long state, int mask) {
+        return (int) StateTable.mix(state) & mask;
+    }
+}
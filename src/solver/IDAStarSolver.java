@@ -0,0 +1,186 @@
+package solver;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An iterative deepening A* (IDA*) alternative to the Solver for state spaces whose predecessors map would not fit in
+ * memory. It runs a series of depth-first searches, each cut off once moves made plus
+ * {@link Configuration#heuristic()} goes over a bound, raising the bound to the smallest value that was cut off each
+ * time. Only the path being explored is kept, so memory grows with the solution depth rather than with the number of
+ * configurations. The price is that configurations reachable in more than one way are expanded again, and that proving
+ * there is no solution means trying every path, so every search is bounded by a depth and may also be given a
+ * {@link SearchBudget}.
+ *
+ * @author Miguel Reyes
+ */
+public class IDAStarSolver {
+
+    // Returned by search once the solution has been found
+    private static final int FOUND = -1;
+
+    // Returned by search once the budget has run out
+    private static final int STOPPED = -2;
+
+    // Bounds above this are not tried, the puzzle is reported as having no solution
+    private final int maxDepth;
+
+    // This is every configuration including the duplicates from the search
+    private int totalConfigs = 1;
+
+    // This is the number of configurations expanded, across every iteration
+    private int expandedConfigs;
+
+    // This is the number of depth-first searches that were run
+    private int iterations;
+
+    // The limits of the search in progress, and why it was stopped, if it was
+    private SearchBudget budget;
+    private long startNanos;
+    private SearchResult.Status stopped;
+
+    /**
+     * Creates a solver that gives up once a solution would need more than maxDepth moves.
+     *
+     * @param maxDepth the longest solution to look for
+     * @throws IllegalArgumentException if maxDepth is negative
+     */
+    public IDAStarSolver(int maxDepth) {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("maxDepth must not be negative: " + maxDepth);
+        }
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * This will perform the IDA* search and check to see if a solution exists. It will also set the total and
+     * expanded configs after performing the search.
+     *
+     * @param conf - the start configuration
+     * @return - a collection of configurations, empty if no path exists within maxDepth moves
+     */
+    public Collection<Configuration> getShortestPath(Configuration conf) {
+        return new LinkedList<>(solve(conf, SearchBudget.UNLIMITED).getPath());
+    }
+
+    /**
+     * Searches from conf within maxDepth moves and the budget. The result is UNSOLVABLE only when every path was tried
+     * without anything being cut off, and DEPTH_LIMIT when a solution might still lie beyond maxDepth. IDA* keeps no
+     * visited set, so the unique count is left at zero and the budget's memory limit never applies.
+     *
+     * @param conf   the start configuration
+     * @param budget the limits on the search
+     * @return the outcome of the search
+     */
+    public SearchResult solve(Configuration conf, SearchBudget budget) {
+        this.totalConfigs = 1;
+        this.expandedConfigs = 0;
+        this.iterations = 0;
+        this.budget = budget;
+        this.startNanos = System.nanoTime();
+        this.stopped = null;
+
+        List<Configuration> path = new ArrayList<>();
+        Set<Configuration> onPath = new HashSet<>();
+        path.add(conf);
+        onPath.add(conf);
+
+        SearchResult.Status status = SearchResult.Status.DEPTH_LIMIT;
+        int bound = conf.heuristic();
+        while (bound <= this.maxDepth) {
+            ++this.iterations;
+            int next = search(path, onPath, 0, bound);
+            if (next == FOUND) {
+                status = SearchResult.Status.SOLVED;
+                break;
+            }
+            if (next == STOPPED) {
+                status = this.stopped;
+                break;
+            }
+            // nothing was cut off, every path has been tried
+            if (next == Integer.MAX_VALUE) {
+                status = SearchResult.Status.UNSOLVABLE;
+                break;
+            }
+            bound = next;
+        }
+        this.budget = null;
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - this.startNanos);
+        return new SearchResult(status, status == SearchResult.Status.SOLVED ? path : List.of(), this.expandedConfigs,
+                this.totalConfigs, 0, 0, millis);
+    }
+
+    /**
+     * Depth-first search from the last configuration on the path, skipping any neighbor already on the path.
+     *
+     * @param path   the configurations from the start to the one being expanded
+     * @param onPath the same configurations, for quick cycle checks
+     * @param cost   number of moves made so far
+     * @param bound  the largest estimate allowed in this iteration
+     * @return FOUND if the path now ends at a solution, STOPPED if the budget ran out, otherwise the smallest estimate
+     * that went over the bound
+     */
+    private int search(List<Configuration> path, Set<Configuration> onPath, int cost, int bound) {
+        Configuration current = path.get(path.size() - 1);
+        int estimate = cost + current.heuristic();
+        if (estimate > bound) {
+            return estimate;
+        }
+        if (current.isSolution()) {
+            return FOUND;
+        }
+        this.stopped = this.budget.check(this.expandedConfigs, 0, this.startNanos);
+        if (this.stopped != null) {
+            return STOPPED;
+        }
+        ++this.expandedConfigs;
+        int smallest = Integer.MAX_VALUE;
+        for (Configuration nbr : current.getNeighbors()) {
+            ++this.totalConfigs;
+            if (onPath.add(nbr)) {
+                path.add(nbr);
+                int result = search(path, onPath, cost + 1, bound);
+                if (result == FOUND || result == STOPPED) {
+                    return result;
+                }
+                smallest = Math.min(smallest, result);
+                path.remove(path.size() - 1);
+                onPath.remove(nbr);
+            }
+        }
+        return smallest;
+    }
+
+    /**
+     * Returns the total number of configurations including duplicates.
+     *
+     * @return Returns the total number of configurations including duplicates.
+     */
+    public int getTotalConfigs() {
+        return totalConfigs;
+    }
+
+    /**
+     * Returns the number of configurations that were expanded, counting repeats across iterations.
+     *
+     * @return Returns the number of configurations that were expanded.
+     */
+    public int getExpandedConfigs() {
+        return expandedConfigs;
+    }
+
+    /**
+     * Returns the number of deepening iterations that were run.
+     *
+     * @return Returns the number of deepening iterations that were run.
+     */
+    public int getIterations() {
+        return iterations;
+    }
+}
@@ -0,0 +1,67 @@
+package solver;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A first-in first-out queue of state codes in a growable circular long array, the encoded counterpart of
+ * {@link RingBufferFrontier} that avoids boxing every code.
+ *
+ * @author Miguel Reyes
+ */
+public class LongFrontier {
+
+    private long[] codes = new long[256];
+    private int head;
+    private int size;
+
+    /**
+     * Adds a code to the back of the frontier.
+     *
+     * @param code the code to add
+     */
+    public void add(long code) {
+        if (this.size == this.codes.length) {
+            long[] bigger = new long[this.codes.length << 1];
+            int firstPart = this.codes.length - this.head;
+            System.arraycopy(this.codes, this.head, bigger, 0, firstPart);
+            System.arraycopy(this.codes, 0, bigger, firstPart, this.head);
+            this.codes = bigger;
+            this.head = 0;
+        }
+        this.codes[(this.head + this.size) & (this.codes.length - 1)] = code;
+        ++this.size;
+    }
+
+    /**
+     * Removes and returns the code at the front of the frontier.
+     *
+     * @return the oldest code in the frontier
+     */
+    public long remove() {
+        if (this.size == 0) {
+            throw new NoSuchElementException();
+        }
+        long code = this.codes[this.head];
+        this.head = (this.head + 1) & (this.codes.length - 1);
+        --this.size;
+        return code;
+    }
+
+    /**
+     * Returns the number of codes waiting in the frontier.
+     *
+     * @return the number of codes waiting in the frontier
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Checks to see if there is anything left to expand.
+     *
+     * @return True if the frontier is empty, False otherwise
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+}
@@ -0,0 +1,17 @@
+package solver;
+
+/**
+ * One move of a puzzle, described by what moved and which way, so a path can be kept as its start and a list of moves
+ * instead of every configuration along it.
+ *
+ * @param piece     what moved, for example a piece's name
+ * @param direction which way it moved, in lowercase words such as "east" or "pour into 1"
+ * @author Miguel Reyes
+ */
+public record Move(String piece, String direction) {
+
+    @Override
+    public String toString() {
+        return this.piece + " " + this.direction;
+    }
+}
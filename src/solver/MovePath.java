@@ -0,0 +1,97 @@
+package solver;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A path kept as its start configuration and the moves made from it. The configurations along the path are only
+ * rebuilt while the path is iterated, one at a time, so a long path costs a move per step rather than a whole
+ * configuration per step.
+ *
+ * @author Miguel Reyes
+ */
+public class MovePath implements Iterable<Configuration> {
+
+    // The path with no configurations, for a puzzle without a solution
+    private static final MovePath NONE = new MovePath(null, List.of());
+
+    private final Configuration start;
+    private final List<Move> moves;
+
+    /**
+     * Creates a path.
+     *
+     * @param start the first configuration of the path
+     * @param moves the moves from the start to the last configuration
+     */
+    public MovePath(Configuration start, List<Move> moves) {
+        this.start = start;
+        this.moves = Collections.unmodifiableList(moves);
+    }
+
+    /**
+     * Returns the path with no configurations at all
+     *
+     * @return the empty path
+     */
+    public static MovePath none() {
+        return NONE;
+    }
+
+    /**
+     * Returns the first configuration
+     *
+     * @return the start, or null if the path is empty
+     */
+    public Configuration getStart() {
+        return this.start;
+    }
+
+    public List<Move> getMoves() {
+        return this.moves;
+    }
+
+    /**
+     * Returns the number of configurations on the path, one more than the number of moves
+     *
+     * @return the number of configurations, 0 if the path is empty
+     */
+    public int size() {
+        return this.start == null ? 0 : this.moves.size() + 1;
+    }
+
+    /**
+     * Replays the moves from the start, building each configuration only when it is asked for.
+     *
+     * @return the configurations along the path, the start first
+     */
+    @Override
+    public Iterator<Configuration> iterator() {
+        return new Iterator<>() {
+            private Configuration current;
+            private int next = -1;
+
+            @Override
+            public boolean hasNext() {
+                return next < size() - 1;
+            }
+
+            @Override
+            public Configuration next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                current = next < 0 ? start : current.applyMove(moves.get(next));
+                ++next;
+                return current;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return this.start == null ? "No Solution" : this.moves.toString();
+    }
+}
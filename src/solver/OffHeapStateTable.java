@@ -0,0 +1,193 @@
+package solver;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A {@link StateTable} stored outside the Java heap in direct byte buffers, so even hundreds of millions of visited
+ * states add nothing for the garbage collector to trace. The table is sized once from a memory budget and does not
+ * grow: each slot takes 16 bytes (state and parent), and once the table is more than three quarters full it reports
+ * itself {@link #isFull() full} rather than letting probe sequences get long. The solver then stops the search with
+ * {@link SearchResult.Status#MEMORY_LIMIT}; inserting a new state into a full table anyway throws an
+ * IllegalStateException.
+ *
+ * @author Miguel Reyes
+ */
+public class OffHeapStateTable implements StateTable {
+
+    /**
+     * Bytes used by one slot: the state code plus one, so an all zero slot is empty, and the parent code.
+     */
+    private static final int SLOT_BYTES = 16;
+
+    /**
+     * A single direct buffer is limited to 2GB, so slots are split over buffers of 2^26 slots (1GB) each.
+     */
+    private static final int SEGMENT_SHIFT = 26;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+    /**
+     * Largest fraction of slots that may be used.
+     */
+    private static final double MAX_LOAD_FACTOR = 0.75;
+
+    private final ByteBuffer[] segments;
+    private final long capacity;
+    private final long maxSize;
+    private int size;
+
+    // Probe statistics over every insert and lookup
+    private long operations;
+    private long totalProbes;
+    private int maxProbeLength;
+
+    /**
+     * Creates a table using as many slots as fit in the budget, rounded down to a power of two.
+     *
+     * @param budgetBytes the most memory the table may use
+     * @throws OutOfMemoryError if the direct buffers can not be allocated, which the solver reports as
+     *                          {@link SearchResult.Status#MEMORY_LIMIT}
+     */
+    public OffHeapStateTable(long budgetBytes) {
+        if (budgetBytes < SLOT_BYTES * 2L) {
+            throw new IllegalArgumentException("Budget too small for a state table: " + budgetBytes);
+        }
+        this.capacity = Long.highestOneBit(budgetBytes / SLOT_BYTES);
+        this.maxSize = Math.min((long) (this.capacity * MAX_LOAD_FACTOR), Integer.MAX_VALUE);
+        long slotsPerSegment = Math.min(this.capacity, 1L << SEGMENT_SHIFT);
+        this.segments = new ByteBuffer[(int) (this.capacity / slotsPerSegment)];
+        for (int i = 0; i < this.segments.length; ++i) {
+            this.segments[i] = ByteBuffer.allocateDirect((int) (slotsPerSegment * SLOT_BYTES))
+                    .order(ByteOrder.nativeOrder());
+        }
+    }
+
+    @Override
+    public boolean putIfAbsent(long state, long parent) {
+        long stored = state + 1;
+        long slot = slot(state);
+        int probes = 1;
+        long found;
+        while ((found = key(slot)) != 0) {
+            if (found == stored) {
+                record(probes);
+                return false;
+            }
+            slot = (slot + 1) & (this.capacity - 1);
+            ++probes;
+        }
+        record(probes);
+        if (this.size >= this.maxSize) {
+            throw new IllegalStateException("State table budget of " + getCapacityBytes() + " bytes is full after "
+                    + this.size + " states");
+        }
+        ByteBuffer segment = this.segments[(int) (slot >>> SEGMENT_SHIFT)];
+        int offset = (int) (slot & SEGMENT_MASK) * SLOT_BYTES;
+        segment.putLong(offset, stored);
+        segment.putLong(offset + Long.BYTES, parent);
+        ++this.size;
+        return true;
+    }
+
+    @Override
+    public long get(long state) {
+        long stored = state + 1;
+        long slot = slot(state);
+        int probes = 1;
+        long found;
+        while ((found = key(slot)) != 0) {
+            if (found == stored) {
+                record(probes);
+                ByteBuffer segment = this.segments[(int) (slot >>> SEGMENT_SHIFT)];
+                return segment.getLong((int) (slot & SEGMENT_MASK) * SLOT_BYTES + Long.BYTES);
+            }
+            slot = (slot + 1) & (this.capacity - 1);
+            ++probes;
+        }
+        record(probes);
+        return NOT_FOUND;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Reports every slot, used or not, since the buffers are allocated up front and held until the table is dropped.
+     */
+    @Override
+    public long bytes() {
+        return getCapacityBytes();
+    }
+
+    @Override
+    public boolean isFull() {
+        return this.size >= this.maxSize;
+    }
+
+    /**
+     * Returns the bytes allocated for the table's buffers.
+     *
+     * @return Returns the bytes allocated for the table's buffers.
+     */
+    public long getCapacityBytes() {
+        return this.capacity * SLOT_BYTES;
+    }
+
+    /**
+     * Returns the fraction of slots in use.
+     *
+     * @return Returns the fraction of slots in use.
+     */
+    public double getLoadFactor() {
+        return (double) this.size / this.capacity;
+    }
+
+    /**
+     * Returns the average number of slots looked at per insert or lookup.
+     *
+     * @return Returns the average number of slots looked at per insert or lookup.
+     */
+    public double getAverageProbeLength() {
+        return this.operations == 0 ? 0 : (double) this.totalProbes / this.operations;
+    }
+
+    /**
+     * Returns the most slots looked at by a single insert or lookup.
+     *
+     * @return Returns the most slots looked at by a single insert or lookup.
+     */
+    public int getMaxProbeLength() {
+        return this.maxProbeLength;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d states in %d bytes, load %.2f, probes avg %.2f max %d", this.size, getCapacityBytes(),
+                getLoadFactor(), getAverageProbeLength(), this.maxProbeLength);
+    }
+
+    /**
+     * Reads the stored key of a slot, 0 if the slot is empty.
+     */
+    private long key(long slot) {
+        return this.segments[(int) (slot >>> SEGMENT_SHIFT)].getLong((int) (slot & SEGMENT_MASK) * SLOT_BYTES);
+    }
+
+    /**
+     * Adds one operation to the probe statistics.
+     */
+    private void record(int probes) {
+        ++this.operations;
+        this.totalProbes += probes;
+        this.maxProbeLength = Math.max(this.maxProbeLength, probes);
+    }
+
+    /**
+     * Spreads a code over the whole table, which may have more slots than an int can count.
+     */
+    private long slot(long state) {
+        return StateTable.mix(state) & (this.capacity - 1);
+    }
+}
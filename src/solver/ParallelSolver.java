@@ -0,0 +1,117 @@
+package solver;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * A level-synchronous version of the Solver's BFS. Each level of the search is expanded all at once on a fork-join
+ * pool, and the predecessors map is a concurrent map, so a neighbor that was already reached by another thread is
+ * rejected by a single putIfAbsent. Every configuration of a level is found before the next level starts, so the path
+ * returned is the same length as the one the sequential Solver finds, though it may not be the same path.
+ *
+ * @author Miguel Reyes
+ */
+public class ParallelSolver {
+
+    // This is the size of the predecessor map at the end of BFS in a ParallelSolver
+    private int uniqueConfigs;
+
+    // This is every configuration including the duplicates from the BFS in ParallelSolver
+    private int totalConfigs = 1;
+
+    // The pool every level is expanded on
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a solver that expands levels on the common fork-join pool, which uses every available core.
+     */
+    public ParallelSolver() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a solver that expands levels on the given pool.
+     *
+     * @param pool the pool to run on
+     */
+    public ParallelSolver(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * This will perform the BFS one level at a time and check to see if a solution exists. It will also set both the
+     * total and unique configs after performing the search.
+     *
+     * @param conf - the start configuration
+     * @return - a collection of configurations, empty if no path exists
+     */
+    public Collection<Configuration> getShortestPath(Configuration conf) {
+        Map<Configuration, Configuration> predecessors = new ConcurrentHashMap<>();
+        predecessors.put(conf, conf);
+        LongAdder generated = new LongAdder();
+
+        Configuration goal = null;
+        List<Configuration> level = List.of(conf);
+        while (!level.isEmpty()) {
+            List<Configuration> current = level;
+            goal = this.pool.submit(() -> current.parallelStream()
+                    .filter(Configuration::isSolution)
+                    .findFirst()
+                    .orElse(null)).join();
+            if (goal != null) {
+                break;
+            }
+            // expand every configuration in the level, keeping only the neighbors this thread claimed first
+            level = this.pool.submit(() -> current.parallelStream()
+                    .flatMap(parent -> {
+                        List<Configuration> claimed = new ArrayList<>();
+                        for (Configuration nbr : parent.getNeighbors()) {
+                            generated.increment();
+                            if (predecessors.putIfAbsent(nbr, parent) == null) {
+                                claimed.add(nbr);
+                            }
+                        }
+                        return claimed.stream();
+                    })
+                    .collect(Collectors.toList())).join();
+        }
+        this.totalConfigs = 1 + generated.intValue();
+        this.uniqueConfigs = predecessors.size();
+
+        List<Configuration> path = new LinkedList<>();
+        if (goal != null) {
+            Configuration currConf = goal;
+            while (currConf != conf) {
+                path.add(0, currConf);
+                currConf = predecessors.get(currConf);
+            }
+            path.add(0, conf);
+        }
+        return path;
+    }
+
+    /**
+     * Returns the total number of unique configurations.
+     *
+     * @return Returns the total number of unique configurations.
+     */
+    public int getUniqueConfigs() {
+        return uniqueConfigs;
+    }
+
+    /**
+     * Returns the total number of configurations including duplicates.
+     *
+     * @return Returns the total number of configurations including duplicates.
+     */
+    public int getTotalConfigs() {
+        return totalConfigs;
+    }
+}
@@ -0,0 +1,26 @@
+package solver;
+
+import java.util.Collection;
+
+/**
+ * A configuration whose goal states can be listed up front and whose moves can be run backwards. Puzzles that
+ * implement this can be searched from both ends at once with {@link Solver#getBidirectionalPath}.
+ *
+ * @author Miguel Reyes
+ */
+public interface ReversibleConfiguration extends Configuration {
+
+    /**
+     * Returns every configuration that satisfies {@link #isSolution()} for the puzzle this configuration belongs to.
+     *
+     * @return all goal configurations
+     */
+    Collection<ReversibleConfiguration> getGoals();
+
+    /**
+     * Returns every configuration that has this configuration as one of its neighbors.
+     *
+     * @return all configurations one move before this one
+     */
+    Collection<ReversibleConfiguration> getPredecessors();
+}
@@ -0,0 +1,93 @@
+package solver;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A frontier backed by a single circular array. The array doubles in size when it fills up, so adding and removing
+ * never allocates a node per element the way a LinkedList does. This is the default frontier used by the Solver.
+ *
+ * @param <E> the type of element held in the frontier
+ * @author Miguel Reyes
+ */
+public class RingBufferFrontier<E> implements Frontier<E> {
+
+    /**
+     * Capacity used when none is given. Must be a power of two.
+     */
+    private static final int DEFAULT_CAPACITY = 256;
+
+    /**
+     * The circular array. Its length is always a power of two so wrapping around is a mask instead of a modulo.
+     */
+    private Object[] elements;
+
+    /**
+     * Index of the front of the frontier.
+     */
+    private int head;
+
+    /**
+     * Number of elements currently stored.
+     */
+    private int size;
+
+    /**
+     * Creates an empty frontier with the default capacity.
+     */
+    public RingBufferFrontier() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty frontier that can hold at least the given number of elements before it has to grow.
+     *
+     * @param initialCapacity expected number of elements
+     */
+    public RingBufferFrontier(int initialCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(initialCapacity, 2) - 1) << 1;
+        this.elements = new Object[capacity];
+    }
+
+    @Override
+    public void add(E element) {
+        if (this.size == this.elements.length) {
+            grow();
+        }
+        this.elements[(this.head + this.size) & (this.elements.length - 1)] = element;
+        ++this.size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E remove() {
+        if (this.size == 0) {
+            throw new NoSuchElementException();
+        }
+        E element = (E) this.elements[this.head];
+        // Clear the slot so the removed configuration can be collected
+        this.elements[this.head] = null;
+        this.head = (this.head + 1) & (this.elements.length - 1);
+        --this.size;
+        return element;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Doubles the array, unrolling the wrapped-around part so the front of the frontier ends up at index 0.
+     */
+    private void grow() {
+        int oldCapacity = this.elements.length;
+        if (oldCapacity == 1 << 30) {
+            throw new IllegalStateException("Frontier cannot grow beyond " + oldCapacity + " elements");
+        }
+        Object[] bigger = Arrays.copyOfRange(this.elements, this.head, this.head + (oldCapacity << 1));
+        System.arraycopy(this.elements, 0, bigger, oldCapacity - this.head, this.head);
+        this.elements = bigger;
+        this.head = 0;
+    }
+}
@@ -0,0 +1,117 @@
+package solver;
+
+/**
+ * Limits on a single search: how long it may run, how many configurations it may expand, roughly how much memory its
+ * visited set may hold, and a token that lets another thread stop it. A budget is immutable, each with method returns a
+ * copy with one limit changed, so a single budget can be shared by many searches.
+ *
+ * @author Miguel Reyes
+ */
+public final class SearchBudget {
+
+    /**
+     * A budget with no limits and no token, which runs a search to the end.
+     */
+    public static final SearchBudget UNLIMITED =
+            new SearchBudget(Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE, null);
+
+    // Wall time allowed, in milliseconds
+    private final long maxMillis;
+
+    // Configurations that may be taken off the queue and expanded
+    private final long maxExpanded;
+
+    // Estimated size the visited set may grow to, in bytes
+    private final long maxVisitedBytes;
+
+    // Lets another thread stop the search, or null if it cannot be cancelled
+    private final CancellationToken token;
+
+    private SearchBudget(long maxMillis, long maxExpanded, long maxVisitedBytes, CancellationToken token) {
+        this.maxMillis = maxMillis;
+        this.maxExpanded = maxExpanded;
+        this.maxVisitedBytes = maxVisitedBytes;
+        this.token = token;
+    }
+
+    /**
+     * Returns a copy of this budget with a wall time limit
+     *
+     * @param maxMillis milliseconds the search may run for
+     * @return the new budget
+     */
+    public SearchBudget withMaxMillis(long maxMillis) {
+        return new SearchBudget(maxMillis, this.maxExpanded, this.maxVisitedBytes, this.token);
+    }
+
+    /**
+     * Returns a copy of this budget with a limit on expanded configurations
+     *
+     * @param maxExpanded configurations the search may expand
+     * @return the new budget
+     */
+    public SearchBudget withMaxExpanded(long maxExpanded) {
+        return new SearchBudget(this.maxMillis, maxExpanded, this.maxVisitedBytes, this.token);
+    }
+
+    /**
+     * Returns a copy of this budget with a limit on the size of the visited set
+     *
+     * @param maxVisitedBytes estimated bytes the visited set may hold
+     * @return the new budget
+     */
+    public SearchBudget withMaxVisitedBytes(long maxVisitedBytes) {
+        return new SearchBudget(this.maxMillis, this.maxExpanded, maxVisitedBytes, this.token);
+    }
+
+    /**
+     * Returns a copy of this budget that stops once the token is cancelled
+     *
+     * @param token the token to watch
+     * @return the new budget
+     */
+    public SearchBudget withToken(CancellationToken token) {
+        return new SearchBudget(this.maxMillis, this.maxExpanded, this.maxVisitedBytes, token);
+    }
+
+    public long getMaxMillis() {
+        return this.maxMillis;
+    }
+
+    public long getMaxExpanded() {
+        return this.maxExpanded;
+    }
+
+    public long getMaxVisitedBytes() {
+        return this.maxVisitedBytes;
+    }
+
+    public CancellationToken getToken() {
+        return this.token;
+    }
+
+    /**
+     * Checks the budget against a search in progress. The checks are ordered from cheapest to dearest, and the clock is
+     * only read once a deadline is set.
+     *
+     * @param expanded     configurations expanded so far
+     * @param visitedBytes estimated size of the visited set
+     * @param startNanos   System.nanoTime when the search began
+     * @return the reason the search must stop, or null if it may carry on
+     */
+    SearchResult.Status check(long expanded, long visitedBytes, long startNanos) {
+        if (this.token != null && this.token.isCancelled()) {
+            return SearchResult.Status.CANCELLED;
+        }
+        if (expanded >= this.maxExpanded) {
+            return SearchResult.Status.EXPANSION_LIMIT;
+        }
+        if (visitedBytes > this.maxVisitedBytes) {
+            return SearchResult.Status.MEMORY_LIMIT;
+        }
+        if (this.maxMillis != Long.MAX_VALUE && (System.nanoTime() - startNanos) / 1_000_000 >= this.maxMillis) {
+            return SearchResult.Status.TIME_LIMIT;
+        }
+        return null;
+    }
+}
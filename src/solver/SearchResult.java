@@ -0,0 +1,176 @@
+package solver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of a search run under a {@link SearchBudget}: whether it found a path, proved there is none, or was
+ * stopped early, along with the counts it gathered up to that point.
+ *
+ * @author Miguel Reyes
+ */
+public final class SearchResult {
+
+    /**
+     * How a search ended.
+     */
+    public enum Status {
+        /** A shortest path was found */
+        SOLVED,
+        /** Every reachable configuration was visited without finding a solution */
+        UNSOLVABLE,
+        /** The wall time limit ran out */
+        TIME_LIMIT,
+        /** The limit on expanded configurations was reached */
+        EXPANSION_LIMIT,
+        /** The visited set outgrew its memory limit */
+        MEMORY_LIMIT,
+        /** The budget's token was cancelled */
+        CANCELLED,
+        /** No solution was found within the depth bound, though a longer one may exist */
+        DEPTH_LIMIT;
+
+        /**
+         * Returns whether the search was stopped before it could decide either way
+         *
+         * @return True unless the status is SOLVED or UNSOLVABLE
+         */
+        public boolean isStopped() {
+            return this != SOLVED && this != UNSOLVABLE;
+        }
+    }
+
+    private final Status status;
+    // One of these is given, the other is built from it when first asked for
+    private List<Configuration> path;
+    private MovePath movePath;
+    private final long expandedConfigs;
+    private final long totalConfigs;
+    private final long uniqueConfigs;
+    private final long visitedBytes;
+    private final long elapsedMillis;
+
+    /**
+     * Creates the result of one search.
+     *
+     * @param status          how the search ended
+     * @param path            the path from start to solution, empty unless solved
+     * @param expandedConfigs configurations taken off the queue and expanded
+     * @param totalConfigs    configurations generated, duplicates included
+     * @param uniqueConfigs   size of the visited set
+     * @param visitedBytes    estimated size of the visited set in bytes
+     * @param elapsedMillis   wall time spent searching
+     */
+    public SearchResult(Status status, List<Configuration> path, long expandedConfigs, long totalConfigs,
+                        long uniqueConfigs, long visitedBytes, long elapsedMillis) {
+        this(status, path, null, expandedConfigs, totalConfigs, uniqueConfigs, visitedBytes, elapsedMillis);
+    }
+
+    /**
+     * Creates the result of one search that kept its path as moves.
+     *
+     * @param status          how the search ended
+     * @param movePath        the path from start to solution, empty unless solved
+     * @param expandedConfigs configurations taken off the queue and expanded
+     * @param totalConfigs    configurations generated, duplicates included
+     * @param uniqueConfigs   size of the visited set
+     * @param visitedBytes    estimated size of the visited set in bytes
+     * @param elapsedMillis   wall time spent searching
+     */
+    public SearchResult(Status status, MovePath movePath, long expandedConfigs, long totalConfigs,
+                        long uniqueConfigs, long visitedBytes, long elapsedMillis) {
+        this(status, null, movePath, expandedConfigs, totalConfigs, uniqueConfigs, visitedBytes, elapsedMillis);
+    }
+
+    private SearchResult(Status status, List<Configuration> path, MovePath movePath, long expandedConfigs,
+                         long totalConfigs, long uniqueConfigs, long visitedBytes, long elapsedMillis) {
+        this.status = status;
+        this.path = path;
+        this.movePath = movePath;
+        this.expandedConfigs = expandedConfigs;
+        this.totalConfigs = totalConfigs;
+        this.uniqueConfigs = uniqueConfigs;
+        this.visitedBytes = visitedBytes;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public Status getStatus() {
+        return this.status;
+    }
+
+    /**
+     * Returns the path from the start to a solution. A path kept as moves is replayed into configurations the first
+     * time this is called.
+     *
+     * @return the path, empty unless the status is SOLVED
+     */
+    public synchronized List<Configuration> getPath() {
+        if (this.path == null) {
+            List<Configuration> replayed = new ArrayList<>(this.movePath.size());
+            this.movePath.forEach(replayed::add);
+            this.path = replayed;
+        }
+        return Collections.unmodifiableList(this.path);
+    }
+
+    /**
+     * Returns the number of configurations on the path without replaying or converting it
+     *
+     * @return the number of configurations, 0 unless the status is SOLVED
+     */
+    public synchronized int getPathLength() {
+        return this.path != null ? this.path.size() : this.movePath.size();
+    }
+
+    /**
+     * Returns the path from the start to a solution as its start and moves. A path kept as configurations is turned
+     * into moves the first time this is called.
+     *
+     * @return the path, empty unless the status is SOLVED
+     */
+    public synchronized MovePath getMovePath() {
+        if (this.movePath == null) {
+            if (this.path.isEmpty()) {
+                this.movePath = MovePath.none();
+            } else {
+                List<Move> moves = new ArrayList<>(this.path.size() - 1);
+                Configuration previous = null;
+                for (Configuration conf : this.path) {
+                    if (previous != null) {
+                        moves.add(previous.describeMove(conf));
+                    }
+                    previous = conf;
+                }
+                this.movePath = new MovePath(this.path.get(0), moves);
+            }
+        }
+        return this.movePath;
+    }
+
+    public long getExpandedConfigs() {
+        return this.expandedConfigs;
+    }
+
+    public long getTotalConfigs() {
+        return this.totalConfigs;
+    }
+
+    public long getUniqueConfigs() {
+        return this.uniqueConfigs;
+    }
+
+    public long getVisitedBytes() {
+        return this.visitedBytes;
+    }
+
+    public long getElapsedMillis() {
+        return this.elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return this.status + ": " + this.expandedConfigs + " expanded, " + this.totalConfigs + " total, "
+                + this.uniqueConfigs + " unique, " + this.visitedBytes + " bytes, " + this.elapsedMillis + " ms";
+    }
+}
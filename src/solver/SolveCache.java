@@ -0,0 +1,193 @@
+package solver;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Remembers the results of finished searches so the same puzzle is never solved twice in one program, keyed by
+ * {@link Configuration#canonicalKey()} and {@link Solver#getCountingMode()}: a hint search that stops as soon as it
+ * generates the solution counts fewer configurations than a full one, and a result must report the counts of the kind
+ * of search that asked for it. Only searches that ran to the end are kept, solved or unsolvable, since a search stopped
+ * by its budget says nothing about the puzzle. The least recently used results are dropped once the cache holds too
+ * many of them or too many bytes. Every method may be called from any thread.
+ *
+ * @author Miguel Reyes
+ */
+public class SolveCache {
+
+    /**
+     * Rough size of a cached result besides its path, and of each configuration on a path besides its key's characters
+     */
+    private static final long ENTRY_BYTES = 64;
+
+    // The cache shared by the whole program
+    private static final SolveCache SHARED = new SolveCache(1024, 64L << 20);
+
+    private final int maxEntries;
+    private final long maxBytes;
+
+    // Kept in access order, so the first entry is always the least recently used
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * A cached result with its estimated size.
+     */
+    private record Entry(SearchResult result, long bytes) {
+    }
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param maxEntries most results kept at once
+     * @param maxBytes   most estimated bytes kept at once
+     */
+    public SolveCache(int maxEntries, long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the cache shared by the whole program, holding up to 1024 results or 64MB
+     *
+     * @return the shared cache
+     */
+    public static SolveCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the cached result for a configuration, or searches for one and caches it. The search runs outside the
+     * cache's lock, so two threads asking for the same new puzzle at once may both search for it.
+     *
+     * @param conf    the start configuration
+     * @param solvers creates the solver used on a miss
+     * @param budget  limits on the search used on a miss
+     * @return the result, whose counts are those of the first search of the puzzle in the same counting mode
+     */
+    public SearchResult solve(Configuration conf, Supplier<Solver> solvers, SearchBudget budget) {
+        Solver solver = solvers.get();
+        String key = conf.canonicalKey();
+        if (key == null) {
+            return solver.solve(conf, budget);
+        }
+        key += " / " + solver.getCountingMode();
+        SearchResult cached = get(key);
+        if (cached != null) {
+            return cached;
+        }
+        SearchResult result = solver.solve(conf, budget);
+        if (!result.getStatus().isStopped()) {
+            put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Solves every puzzle file in a directory ahead of time, so later searches for them are hits.
+     *
+     * @param dir     the directory holding the puzzle files
+     * @param loader  reads a file into its start configuration, or returns null to skip a file that is not a puzzle
+     * @param solvers creates the solver for each puzzle
+     * @param budget  limits on each search
+     * @return the number of puzzles that ended up cached
+     * @throws IOException if the directory can not be listed
+     */
+    public int warmup(Path dir, Function<Path, Configuration> loader, Supplier<Solver> solvers, SearchBudget budget)
+            throws IOException {
+        int cached = 0;
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files.sorted()::iterator) {
+                Configuration conf = Files.isRegularFile(file) ? loader.apply(file) : null;
+                if (conf != null && !solve(conf, solvers, budget).getStatus().isStopped()) {
+                    ++cached;
+                }
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * Looks up a result, counting a hit or a miss.
+     *
+     * @param key the canonical key of the puzzle followed by the counting mode
+     * @return the result, or null if it is not cached
+     */
+    public synchronized SearchResult get(String key) {
+        Entry entry = this.entries.get(key);
+        if (entry == null) {
+            ++this.misses;
+            return null;
+        }
+        ++this.hits;
+        return entry.result();
+    }
+
+    /**
+     * Caches a result, then drops the least recently used ones until the cache is back within its limits. A result too
+     * big for the cache on its own is dropped straight away.
+     *
+     * @param key    the canonical key of the puzzle followed by the counting mode
+     * @param result the result of a search that ran to the end
+     */
+    public synchronized void put(String key, SearchResult result) {
+        long configBytes = ENTRY_BYTES + 2L * key.length();
+        Entry entry = new Entry(result, configBytes * (result.getPathLength() + 1));
+        Entry old = this.entries.put(key, entry);
+        if (old != null) {
+            this.bytes -= old.bytes();
+        }
+        this.bytes += entry.bytes();
+        Iterator<Map.Entry<String, Entry>> eldest = this.entries.entrySet().iterator();
+        while (this.entries.size() > this.maxEntries || this.bytes > this.maxBytes) {
+            this.bytes -= eldest.next().getValue().bytes();
+            eldest.remove();
+            ++this.evictions;
+        }
+    }
+
+    /**
+     * Drops every cached result. The counters are kept.
+     */
+    public synchronized void clear() {
+        this.entries.clear();
+        this.bytes = 0;
+    }
+
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    public synchronized long getBytes() {
+        return this.bytes;
+    }
+
+    public synchronized long getHits() {
+        return this.hits;
+    }
+
+    public synchronized long getMisses() {
+        return this.misses;
+    }
+
+    public synchronized long getEvictions() {
+        return this.evictions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return this.entries.size() + " results, " + this.bytes + " bytes, " + this.hits + " hits, " + this.misses
+                + " misses, " + this.evictions + " evictions";
+    }
+}
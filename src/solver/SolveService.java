@@ -0,0 +1,94 @@
+package solver;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs searches in the background so a user interface never waits on one. Searches run on a fixed number of daemon
+ * threads, which never keep the program alive on their own, and at most a fixed number wait their turn; a search
+ * submitted past that fails right away instead of piling up. A search is stopped by cancelling the token in its budget.
+ * Searches may go through a {@link SolveCache}, so a puzzle solved before returns at once.
+ *
+ * @author Miguel Reyes
+ */
+public class SolveService {
+
+    // Runs the searches, with a bounded queue of those waiting for a thread
+    private final ThreadPoolExecutor executor;
+
+    // Results shared with other searches, or null to always search
+    private final SolveCache cache;
+
+    /**
+     * Creates a service and its threads.
+     *
+     * @param threads       searches that may run at once
+     * @param queueCapacity searches that may wait for a free thread
+     */
+    public SolveService(int threads, int queueCapacity) {
+        this(threads, queueCapacity, null);
+    }
+
+    /**
+     * Creates a service and its threads that looks every puzzle up in a cache before searching.
+     *
+     * @param threads       searches that may run at once
+     * @param queueCapacity searches that may wait for a free thread
+     * @param cache         the cache to use, or null to always search
+     */
+    public SolveService(int threads, int queueCapacity, SolveCache cache) {
+        this.cache = cache;
+        AtomicInteger created = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "solver-" + created.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Starts a search in the background.
+     *
+     * @param solvers creates the solver for the search, so each search has its own counts
+     * @param conf    the start configuration
+     * @param budget  limits on the search, including the token that cancels it
+     * @return completes with the result of the search, or fails if the search threw or the queue was full
+     */
+    public CompletableFuture<SearchResult> submit(Supplier<Solver> solvers, Configuration conf, SearchBudget budget) {
+        try {
+            return CompletableFuture.supplyAsync(() -> this.cache != null ? this.cache.solve(conf, solvers, budget)
+                    : solvers.get().solve(conf, budget), this.executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Runs other work a search needs in the background, such as building a distance table, on the same threads and
+     * queue as the searches.
+     *
+     * @param task the work to run
+     * @param <T>  the type of its result
+     * @return completes with the result of the task, or fails if the task threw or the queue was full
+     */
+    public <T> CompletableFuture<T> run(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, this.executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Stops accepting searches. Searches already submitted still run unless their tokens are cancelled.
+     */
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+}
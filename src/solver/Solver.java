@@ -1,6 +1,8 @@
 package solver;
 
 import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * This an abstract class that contains an abstract universal algorithm to find a path from a starting
@@ -16,6 +18,110 @@ public class Solver {
     // This is every configuration including the duplicates from the BFS in Solver
     private int totalConfigs = 1;
 
+    // Creates the frontier used for each search
+    private final Supplier<Frontier<Configuration>> frontierFactory;
+
+    // Whether configurations are tested for a solution as soon as they are generated rather than when dequeued
+    private boolean goalOnGeneration;
+
+    // Creates the visited table used for each search of an encodable configuration
+    private Supplier<StateTable> stateTableFactory = HeapStateTable::new;
+
+    // Tells someone about each finished level, or null
+    private SolverListener listener;
+
+    // Whether the time spent generating neighbors is told apart from the time spent hashing them
+    private boolean timed;
+
+    // Whether encodable configurations are searched by their codes
+    private boolean encoded = true;
+
+    // Measurements of the latest search
+    private SolverMetrics metrics;
+
+    // Rough size of one entry of the predecessor map, counted against the visited bytes of a budget. It covers the
+    // map's own node and table slot plus a small configuration; large configurations are undercounted.
+    private static final long OBJECT_ENTRY_BYTES = 128;
+
+    /**
+     * Creates a solver that uses an array-backed {@link RingBufferFrontier} for its queue.
+     */
+    public Solver() {
+        this(RingBufferFrontier::new);
+    }
+
+    /**
+     * Creates a solver that uses the given kind of frontier for its queue, for example a {@link ChunkedFrontier} for
+     * searches too large to comfortably double a single array.
+     *
+     * @param frontierFactory creates an empty frontier for each search
+     */
+    public Solver(Supplier<Frontier<Configuration>> frontierFactory) {
+        this.frontierFactory = frontierFactory;
+    }
+
+    /**
+     * Changes the visited table used when the start configuration is encodable. By default a {@link HeapStateTable}
+     * is used; an {@link OffHeapStateTable} keeps very large searches out of the garbage collector's way.
+     *
+     * @param stateTableFactory creates an empty table for each search
+     */
+    public void setStateTableFactory(Supplier<StateTable> stateTableFactory) {
+        this.stateTableFactory = stateTableFactory;
+    }
+
+    /**
+     * Chooses when configurations are tested for a solution. By default a configuration is tested when it reaches the
+     * front of the queue, so the whole level before the solution is expanded first. Testing as soon as a configuration
+     * is first generated stops the search right away instead, which saves most of the last and widest level. The path
+     * is still a shortest one, since every configuration one move closer was tested before it, but fewer configurations
+     * are counted.
+     *
+     * @param goalOnGeneration True to test configurations when they are generated
+     */
+    public void setGoalOnGeneration(boolean goalOnGeneration) {
+        this.goalOnGeneration = goalOnGeneration;
+    }
+
+    /**
+     * Describes the settings that decide what a search counts. Every frontier is first in first out and every visited
+     * table keeps the same states, so only when configurations are tested for a solution changes the counts.
+     *
+     * @return the same text for any two solvers whose searches of a puzzle count the same configurations
+     */
+    public String getCountingMode() {
+        return this.goalOnGeneration ? "goal on generation" : "goal on expansion";
+    }
+
+    /**
+     * Sets a listener told about every finished level of each search, for example to show progress.
+     *
+     * @param listener the listener, or null for none
+     */
+    public void setListener(SolverListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Chooses whether searches split their time between generating neighbors and hashing them. The split costs two
+     * clock reads per neighbor, so it is off by default.
+     *
+     * @param timed True to time generation and hashing separately
+     */
+    public void setTimed(boolean timed) {
+        this.timed = timed;
+    }
+
+    /**
+     * Chooses whether encodable configurations are searched by their codes, which is the default. Turned off, every
+     * configuration is searched as an object through the frontier this solver was created with, which lets the two
+     * searches be compared.
+     *
+     * @param encoded True to search encodable configurations by their codes
+     */
+    public void setEncoded(boolean encoded) {
+        this.encoded = encoded;
+    }
 
     /**
      * This will perform the BFS and check to see if a solution exists. It will also call the set both total and unique
@@ -25,40 +131,508 @@ public class Solver {
      * @return - a collection of configurations
      */
     public Collection<Configuration> getShortestPath(Configuration conf) {
-        Configuration goal = null;
+        return solve(conf, SearchBudget.UNLIMITED).getPath();
+    }
+
+    /**
+     * Performs the same BFS as getShortestPath, but checks the budget before every expansion and stops cooperatively
+     * once any of its limits is reached. A stopped search returns an empty path along with the counts gathered so far,
+     * which are also what the total and unique config getters report afterwards.
+     *
+     * @param conf   the start configuration
+     * @param budget limits on the search
+     * @return how the search ended, its path if one was found, and its counts
+     */
+    public SearchResult solve(Configuration conf, SearchBudget budget) {
+        return search(conf, budget, false);
+    }
+
+    /**
+     * Performs the same search as solve, but keeps the path as its start and the moves along it. Only the
+     * configuration being replayed is held at any time while the path is built, never the whole path.
+     *
+     * @param conf   the start configuration
+     * @param budget limits on the search
+     * @return how the search ended, its path as moves if one was found, and its counts
+     */
+    public SearchResult solveMoves(Configuration conf, SearchBudget budget) {
+        return search(conf, budget, true);
+    }
+
+    /**
+     * The BFS behind solve and solveMoves.
+     *
+     * @param conf   the start configuration
+     * @param budget limits on the search
+     * @param moves  whether to keep the path as moves rather than configurations
+     * @return how the search ended, its path if one was found, and its counts
+     */
+    private SearchResult search(Configuration conf, SearchBudget budget, boolean moves) {
+        if (this.encoded && conf instanceof EncodableConfiguration encodable && encodable.isEncodable()) {
+            return solveEncoded(encodable, budget, moves);
+        }
+        SolverMetrics metrics = startMetrics();
+        long startNanos = System.nanoTime();
+        long expanded = 0;
+        long levelExpanded = 0;
+        SearchResult.Status stopped = null;
+        // the goal is kept in an array so the neighbor callback can set it
+        Configuration[] goal = {null};
+        if (this.goalOnGeneration && conf.isSolution()) {
+            goal[0] = conf;
+        }
         // prime the queue with the starting configuration
-        List<Configuration> queue = new LinkedList<>();
+        Frontier<Configuration> queue = this.frontierFactory.get();
         queue.add(conf);
+        int levelRemaining = 1;
 
         // construct the predecessors data structure
         Map<Configuration, Configuration> predecessors = new HashMap<>();
         // put the starting configuration in, and just assign itself as predecessor
         predecessors.put(conf, conf);
+        // time spent in the neighbor callback, only measured when timing
+        long[] hashingNanos = {0};
 
         // loop until either the finish configuration is found, or the queue is empty (no path)
-        while (!queue.isEmpty()) {
+        while (goal[0] == null && !queue.isEmpty()) {
+            stopped = budget.check(expanded, predecessors.size() * OBJECT_ENTRY_BYTES, startNanos);
+            if (stopped != null) {
+                break;
+            }
             // the next configuration to process is at the front of the queue
-            Configuration current = queue.remove(0);
-            if (current.isSolution()) {
-                goal = current;
+            Configuration current = queue.remove();
+            if (!this.goalOnGeneration && current.isSolution()) {
+                goal[0] = current;
                 break;
             }
+            ++expanded;
+            ++levelExpanded;
+            long expandStart = this.timed ? System.nanoTime() : 0;
+            long hashingBefore = hashingNanos[0];
             // loop over all neighbors of current
-            for (Configuration nbr : current.getNeighbors()) {
+            current.forEachNeighbor(nbr -> {
+                if (goal[0] != null) {
+                    return;
+                }
                 ++this.totalConfigs;
-                // process unvisited neighbors
-                if (!predecessors.containsKey(nbr)) {
-                    predecessors.put(nbr, current);
+                long hashStart = this.timed ? System.nanoTime() : 0;
+                // process unvisited neighbors, a single lookup both checks and records them
+                boolean unvisited = predecessors.putIfAbsent(nbr, current) == null;
+                if (this.timed) {
+                    hashingNanos[0] += System.nanoTime() - hashStart;
+                }
+                if (unvisited) {
                     queue.add(nbr);
+                    if (this.goalOnGeneration && nbr.isSolution()) {
+                        goal[0] = nbr;
+                    }
                 }
+            });
+            if (this.timed) {
+                long hashing = hashingNanos[0] - hashingBefore;
+                metrics.addTimes(System.nanoTime() - expandStart - hashing, hashing);
+            }
+            if (--levelRemaining == 0) {
+                levelRemaining = queue.size();
+                finishLevel(metrics, expanded, levelExpanded, predecessors.size(), queue.size(),
+                        predecessors.size() * OBJECT_ENTRY_BYTES);
+                levelExpanded = 0;
             }
         }
         this.uniqueConfigs = predecessors.size();
+        metrics.update(expanded, this.totalConfigs, this.uniqueConfigs, queue.size(),
+                predecessors.size() * OBJECT_ENTRY_BYTES);
 
         // construct the path from the predecessor map and return the
         // sequence from start to finish configuration
+        if (moves) {
+            return result(stopped, goal[0] != null, constructMovePath(predecessors, conf, goal[0]), metrics);
+        }
+        return result(stopped, goal[0] != null, constructPath(predecessors, conf, goal[0]), metrics);
+    }
+
+    /**
+     * The same BFS as solve, but the queue and the predecessors hold state codes rather than configuration objects. A
+     * configuration is decoded only to expand it, so the visited set costs a couple of longs per state.
+     *
+     * @param conf   the start configuration
+     * @param budget limits on the search
+     * @param moves  whether to keep the path as moves rather than configurations
+     * @return how the search ended, its path if one was found, and its counts
+     */
+    private SearchResult solveEncoded(EncodableConfiguration conf, SearchBudget budget, boolean moves) {
+        SolverMetrics metrics = startMetrics();
+        long startNanos = System.nanoTime();
+        long expanded = 0;
+        long levelExpanded = 0;
+        SearchResult.Status stopped = null;
+        long start = conf.encode();
+        // the goal is kept in an array so the neighbor callback can set it
+        long[] goal = {StateTable.NOT_FOUND};
+        if (this.goalOnGeneration && conf.isSolution()) {
+            goal[0] = start;
+        }
+        LongFrontier queue = new LongFrontier();
+        queue.add(start);
+        int levelRemaining = 1;
+        StateTable predecessors;
+        try {
+            predecessors = this.stateTableFactory.get();
+        } catch (OutOfMemoryError e) {
+            // a table sized up front, like the off-heap one, may not fit at all
+            return result(SearchResult.Status.MEMORY_LIMIT, false, List.of(), metrics);
+        }
+        // visited states are keyed by canonical code, but their predecessors are the codes actually reached
+        predecessors.putIfAbsent(conf.canonicalize(start), start);
+        // time spent in the neighbor callback, only measured when timing
+        long[] hashingNanos = {0};
+        boolean[] full = {false};
+
+        while (goal[0] == StateTable.NOT_FOUND && !queue.isEmpty()) {
+            stopped = full[0] ? SearchResult.Status.MEMORY_LIMIT : budget.check(expanded, predecessors.bytes(),
+                    startNanos);
+            if (stopped != null) {
+                break;
+            }
+            long expandStart = this.timed ? System.nanoTime() : 0;
+            long hashingBefore = hashingNanos[0];
+            long code = queue.remove();
+            EncodableConfiguration current = code == start ? conf : conf.decode(code);
+            if (!this.goalOnGeneration && current.isSolution()) {
+                goal[0] = code;
+                break;
+            }
+            ++expanded;
+            ++levelExpanded;
+            // neighbors arrive as codes, a single probe both checks and records each one
+            current.forEachNeighborCode(nbrCode -> {
+                if (goal[0] != StateTable.NOT_FOUND || full[0]) {
+                    return;
+                }
+                if (predecessors.isFull()) {
+                    // a fixed size table has no room left, the search stops as if it ran out of memory
+                    full[0] = true;
+                    return;
+                }
+                ++this.totalConfigs;
+                long hashStart = this.timed ? System.nanoTime() : 0;
+                boolean unvisited = predecessors.putIfAbsent(conf.canonicalize(nbrCode), code);
+                if (this.timed) {
+                    hashingNanos[0] += System.nanoTime() - hashStart;
+                }
+                if (unvisited) {
+                    queue.add(nbrCode);
+                    if (this.goalOnGeneration && conf.isSolution(nbrCode)) {
+                        goal[0] = nbrCode;
+                    }
+                }
+            });
+            if (this.timed) {
+                long hashing = hashingNanos[0] - hashingBefore;
+                metrics.addTimes(System.nanoTime() - expandStart - hashing, hashing);
+            }
+            if (--levelRemaining == 0) {
+                levelRemaining = queue.size();
+                finishLevel(metrics, expanded, levelExpanded, predecessors.size(), queue.size(), predecessors.bytes());
+                levelExpanded = 0;
+            }
+        }
+        this.uniqueConfigs = predecessors.size();
+        metrics.update(expanded, this.totalConfigs, this.uniqueConfigs, queue.size(), predecessors.bytes());
+
+        if (moves) {
+            return result(stopped, goal[0] != StateTable.NOT_FOUND, constructMovePath(predecessors, conf, goal[0]),
+                    metrics);
+        }
+        return result(stopped, goal[0] != StateTable.NOT_FOUND, constructPath(predecessors, conf, goal[0]), metrics);
+    }
+
+    /**
+     * Resets the counters and starts the metrics of a new search, so a reused solver reports each search on its own.
+     *
+     * @return the metrics of the new search
+     */
+    private SolverMetrics startMetrics() {
+        this.totalConfigs = 1;
+        this.uniqueConfigs = 0;
+        this.metrics = new SolverMetrics();
+        return this.metrics;
+    }
+
+    /**
+     * Records a finished level and tells the listener about it.
+     *
+     * @param metrics       the metrics of the search
+     * @param expanded      configurations expanded so far
+     * @param levelExpanded configurations expanded in the level
+     * @param unique        size of the visited set
+     * @param frontier      size of the queue, which is the size of the next level
+     * @param visitedBytes  estimated size of the visited set
+     */
+    private void finishLevel(SolverMetrics metrics, long expanded, long levelExpanded, long unique, long frontier,
+                             long visitedBytes) {
+        metrics.levelFinished(levelExpanded, frontier);
+        metrics.update(expanded, this.totalConfigs, unique, frontier, visitedBytes);
+        if (this.listener != null) {
+            this.listener.levelFinished(metrics);
+        }
+    }
+
+    /**
+     * Gathers the outcome of a search into a result.
+     *
+     * @param stopped the limit that stopped the search, or null if it ran to the end
+     * @param found   whether a solution was found
+     * @param path    the path found, empty if none
+     * @param metrics the metrics of the search
+     * @return the result
+     */
+    private SearchResult result(SearchResult.Status stopped, boolean found, List<Configuration> path,
+                                SolverMetrics metrics) {
+        metrics.finish();
+        return new SearchResult(status(stopped, found), path, metrics.getExpanded(), this.totalConfigs,
+                this.uniqueConfigs, metrics.getPeakVisitedBytes(), metrics.getWallNanos() / 1_000_000);
+    }
 
-        return constructPath(predecessors, conf, goal);
+    /**
+     * Gathers the outcome of a search into a result that keeps its path as moves.
+     *
+     * @param stopped  the limit that stopped the search, or null if it ran to the end
+     * @param found    whether a solution was found
+     * @param movePath the path found, empty if none
+     * @param metrics  the metrics of the search
+     * @return the result
+     */
+    private SearchResult result(SearchResult.Status stopped, boolean found, MovePath movePath,
+                                SolverMetrics metrics) {
+        metrics.finish();
+        return new SearchResult(status(stopped, found), movePath, metrics.getExpanded(), this.totalConfigs,
+                this.uniqueConfigs, metrics.getPeakVisitedBytes(), metrics.getWallNanos() / 1_000_000);
+    }
+
+    /**
+     * Works out how a search ended.
+     *
+     * @param stopped the limit that stopped the search, or null if it ran to the end
+     * @param found   whether a solution was found
+     * @return the status
+     */
+    private static SearchResult.Status status(SearchResult.Status stopped, boolean found) {
+        return found ? SearchResult.Status.SOLVED : stopped != null ? stopped : SearchResult.Status.UNSOLVABLE;
+    }
+
+    /**
+     * Method to return a path from the starting to finishing configuration of an encoded search. Rather than decoding
+     * each code on the way, the path is replayed forwards from the start picking the neighbor with the next code, so
+     * every configuration returned is exactly the one its predecessor produces.
+     *
+     * @param predecessors table used to reconstruct the path, keyed by canonical code
+     * @param conf         starting configuration
+     * @param goal         code of the finishing configuration, or NOT_FOUND
+     * @return a list containing the sequence of configurations comprising the path.
+     * An empty list if no path exists.
+     */
+    public List<Configuration> constructPath(StateTable predecessors, EncodableConfiguration conf, long goal) {
+        List<Configuration> path = new LinkedList<>();
+        if (goal == StateTable.NOT_FOUND) {
+            return path;
+        }
+        // collect the codes from the goal back to the start
+        long start = conf.encode();
+        Deque<Long> codes = new ArrayDeque<>();
+        for (long code = goal; code != start; code = predecessors.get(conf.canonicalize(code))) {
+            codes.push(code);
+        }
+        Configuration current = conf;
+        path.add(current);
+        for (long code : codes) {
+            for (Configuration nbr : current.getNeighbors()) {
+                if (((EncodableConfiguration) nbr).encode() == code) {
+                    current = nbr;
+                    break;
+                }
+            }
+            path.add(current);
+        }
+        return path;
+    }
+
+    /**
+     * Method to return the moves from the starting to finishing configuration of an encoded search. The path is
+     * replayed forwards from the start like constructPath, but each configuration is dropped as soon as the move out
+     * of it is known, so only the codes and the moves are held.
+     *
+     * @param predecessors table used to reconstruct the path, keyed by canonical code
+     * @param conf         starting configuration
+     * @param goal         code of the finishing configuration, or NOT_FOUND
+     * @return the path as moves, empty if no path exists
+     */
+    public MovePath constructMovePath(StateTable predecessors, EncodableConfiguration conf, long goal) {
+        if (goal == StateTable.NOT_FOUND) {
+            return MovePath.none();
+        }
+        long start = conf.encode();
+        Deque<Long> codes = new ArrayDeque<>();
+        for (long code = goal; code != start; code = predecessors.get(conf.canonicalize(code))) {
+            codes.push(code);
+        }
+        List<Move> moves = new ArrayList<>(codes.size());
+        Configuration current = conf;
+        for (long code : codes) {
+            for (Configuration nbr : current.getNeighbors()) {
+                if (((EncodableConfiguration) nbr).encode() == code) {
+                    moves.add(current.describeMove(nbr));
+                    current = nbr;
+                    break;
+                }
+            }
+        }
+        return new MovePath(conf, moves);
+    }
+
+    /**
+     * Method to return the moves from the starting to finishing configuration of an object search, described while
+     * walking the predecessors back from the goal.
+     *
+     * @param predecessors Map used to reconstruct the path
+     * @param conf         starting configuration
+     * @param goal         finishing configuration
+     * @return the path as moves, empty if no path exists
+     */
+    public MovePath constructMovePath(Map<Configuration, Configuration> predecessors, Configuration conf,
+                                      Configuration goal) {
+        if (!predecessors.containsKey(goal)) {
+            return MovePath.none();
+        }
+        Deque<Move> moves = new ArrayDeque<>();
+        for (Configuration currConf = goal; currConf != conf; ) {
+            Configuration previous = predecessors.get(currConf);
+            moves.push(previous.describeMove(currConf));
+            currConf = previous;
+        }
+        return new MovePath(conf, new ArrayList<>(moves));
+    }
+
+    /**
+     * Performs a bidirectional BFS, growing one search forward from the starting configuration and one backwards from
+     * every goal configuration until they meet. Each step expands a whole level of whichever side has the smaller
+     * frontier, and the best meeting point found in that level is kept, so the returned path is still a shortest one.
+     * It will also set both the total and unique configs after performing the search.
+     *
+     * @param start - the start configuration
+     * @return - a collection of configurations, empty if no path exists
+     */
+    public Collection<Configuration> getBidirectionalPath(ReversibleConfiguration start) {
+        SolverMetrics metrics = startMetrics();
+        long expanded = 0;
+        // Forward map points each configuration at the one before it, backward map at the one after it
+        Map<Configuration, Configuration> forward = new HashMap<>();
+        Map<Configuration, Configuration> backward = new HashMap<>();
+        Frontier<Configuration> forwardQueue = this.frontierFactory.get();
+        Frontier<Configuration> backwardQueue = this.frontierFactory.get();
+
+        forward.put(start, start);
+        forwardQueue.add(start);
+        for (ReversibleConfiguration goal : start.getGoals()) {
+            if (!backward.containsKey(goal)) {
+                backward.put(goal, goal);
+                backwardQueue.add(goal);
+            }
+        }
+
+        Configuration meeting = backward.containsKey(start) ? start : null;
+        // keep expanding the cheaper side until the two searches touch or one side runs out
+        while (meeting == null && !forwardQueue.isEmpty() && !backwardQueue.isEmpty()) {
+            long levelExpanded;
+            if (forwardQueue.size() <= backwardQueue.size()) {
+                levelExpanded = forwardQueue.size();
+                meeting = expandLevel(forwardQueue, forward, backward, Configuration::getNeighbors);
+            } else {
+                levelExpanded = backwardQueue.size();
+                meeting = expandLevel(backwardQueue, backward, forward,
+                        current -> ((ReversibleConfiguration) current).getPredecessors());
+            }
+            expanded += levelExpanded;
+            finishLevel(metrics, expanded, levelExpanded, forward.size() + backward.size(),
+                    forwardQueue.size() + backwardQueue.size(), 0);
+        }
+        this.uniqueConfigs = forward.size() + backward.size();
+        metrics.update(expanded, this.totalConfigs, this.uniqueConfigs, forwardQueue.size() + backwardQueue.size(), 0);
+        metrics.finish();
+
+        List<Configuration> path = new LinkedList<>();
+        if (meeting != null) {
+            // walk back to the start, then forward to the goal
+            Configuration currConf = meeting;
+            Configuration next = forward.get(currConf);
+            path.add(currConf);
+            while (!next.equals(currConf)) {
+                path.add(0, next);
+                currConf = next;
+                next = forward.get(currConf);
+            }
+            currConf = meeting;
+            next = backward.get(currConf);
+            while (!next.equals(currConf)) {
+                path.add(next);
+                currConf = next;
+                next = backward.get(currConf);
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Expands exactly one level of one side of a bidirectional search.
+     *
+     * @param queue    the frontier of the side being expanded
+     * @param visited  links of the side being expanded
+     * @param opposite links of the other side
+     * @param expand   produces the configurations one step further away from this side's root
+     * @return the meeting configuration closest to the other side's roots, or null if the sides did not meet
+     */
+    private Configuration expandLevel(Frontier<Configuration> queue, Map<Configuration, Configuration> visited,
+                                      Map<Configuration, Configuration> opposite,
+                                      Function<Configuration, Collection<? extends Configuration>> expand) {
+        Configuration meeting = null;
+        int meetingDepth = Integer.MAX_VALUE;
+        for (int remaining = queue.size(); remaining > 0; --remaining) {
+            Configuration current = queue.remove();
+            for (Configuration nbr : expand.apply(current)) {
+                ++this.totalConfigs;
+                if (!visited.containsKey(nbr)) {
+                    visited.put(nbr, current);
+                    queue.add(nbr);
+                    if (opposite.containsKey(nbr)) {
+                        int depth = depth(opposite, nbr);
+                        if (depth < meetingDepth) {
+                            meeting = nbr;
+                            meetingDepth = depth;
+                        }
+                    }
+                }
+            }
+        }
+        return meeting;
+    }
+
+    /**
+     * Counts the links between a configuration and the root of its search.
+     *
+     * @param links the links of one side of a search
+     * @param conf  a configuration in links
+     * @return how many moves conf is from its root
+     */
+    private static int depth(Map<Configuration, Configuration> links, Configuration conf) {
+        int depth = 0;
+        Configuration currConf = conf;
+        Configuration next = links.get(currConf);
+        while (!next.equals(currConf)) {
+            currConf = next;
+            next = links.get(currConf);
+            ++depth;
+        }
+        return depth;
     }
 
     /**
@@ -87,6 +661,15 @@ public class Solver {
     }
 
 
+    /**
+     * Returns the measurements of the latest search, or of the running one when called from a listener.
+     *
+     * @return the metrics, or null before the first search
+     */
+    public SolverMetrics getMetrics() {
+        return this.metrics;
+    }
+
     /**
      * Returns the total number of unique configurations.
      *
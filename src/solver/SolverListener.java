@@ -0,0 +1,18 @@
+package solver;
+
+/**
+ * Watches a {@link Solver} while it searches, for example to show progress on a long search.
+ *
+ * @author Miguel Reyes
+ */
+@FunctionalInterface
+public interface SolverListener {
+
+    /**
+     * Called on the searching thread each time a whole level of the search has been expanded. The metrics are the live
+     * ones of the running search, so they should be read straight away rather than kept.
+     *
+     * @param metrics the metrics of the search so far, with getDepth levels finished
+     */
+    void levelFinished(SolverMetrics metrics);
+}
@@ -0,0 +1,218 @@
+package solver;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Measurements of a single search by a {@link Solver}: how many configurations each level expanded and left on the
+ * queue, how many generated configurations were duplicates, how big the visited set grew, and how long and how much
+ * allocation the search took. Splitting the time between generating neighbors and hashing them costs two clock reads
+ * per neighbor, so it is only measured when the solver is asked to time its searches.
+ *
+ * @author Miguel Reyes
+ */
+public class SolverMetrics {
+
+    // The thread bean of the HotSpot JVM, which can report allocation per thread, or null on other JVMs
+    private static final com.sun.management.ThreadMXBean THREADS = allocationBean();
+
+    private final List<Long> levelExpanded = new ArrayList<>();
+    private final List<Long> levelFrontier = new ArrayList<>();
+    private long expanded;
+    private long generated;
+    private long unique;
+    private long peakFrontier;
+    private long peakVisitedBytes;
+    private long generationNanos;
+    private long hashingNanos;
+    private long wallNanos;
+    private long allocatedBytes = -1;
+
+    // Where the clock and the allocation counter stood when the search began
+    private final long startNanos;
+    private final long startAllocated;
+
+    /**
+     * Starts measuring a search on the current thread.
+     */
+    SolverMetrics() {
+        this.startNanos = System.nanoTime();
+        this.startAllocated = THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean sunBean && sunBean.isThreadAllocatedMemorySupported()) {
+            sunBean.setThreadAllocatedMemoryEnabled(true);
+            return sunBean;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the bytes allocated so far by the current thread, or -1 if the JVM can not tell
+     *
+     * @return the bytes allocated by the current thread
+     */
+    public static long currentThreadAllocatedBytes() {
+        return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    /**
+     * Records a finished level.
+     *
+     * @param expanded configurations expanded in the level
+     * @param frontier configurations left on the queue for the next level
+     */
+    void levelFinished(long expanded, long frontier) {
+        this.levelExpanded.add(expanded);
+        this.levelFrontier.add(frontier);
+    }
+
+    /**
+     * Records the counts so far, to be called at least at the end of every level and of the search.
+     *
+     * @param expanded     configurations expanded
+     * @param generated    configurations generated, the start included
+     * @param unique       size of the visited set
+     * @param frontier     current size of the queue
+     * @param visitedBytes estimated size of the visited set
+     */
+    void update(long expanded, long generated, long unique, long frontier, long visitedBytes) {
+        this.expanded = expanded;
+        this.generated = generated;
+        this.unique = unique;
+        this.peakFrontier = Math.max(this.peakFrontier, frontier);
+        this.peakVisitedBytes = Math.max(this.peakVisitedBytes, visitedBytes);
+        this.wallNanos = System.nanoTime() - this.startNanos;
+    }
+
+    /**
+     * Adds to the time spent on the two halves of expanding configurations.
+     *
+     * @param generationNanos time spent building neighbors
+     * @param hashingNanos    time spent looking neighbors up in the visited set
+     */
+    void addTimes(long generationNanos, long hashingNanos) {
+        this.generationNanos += generationNanos;
+        this.hashingNanos += hashingNanos;
+    }
+
+    /**
+     * Stops measuring, reading the allocation counter one last time.
+     */
+    void finish() {
+        this.wallNanos = System.nanoTime() - this.startNanos;
+        if (THREADS != null) {
+            this.allocatedBytes = THREADS.getCurrentThreadAllocatedBytes() - this.startAllocated;
+        }
+    }
+
+    /**
+     * Returns the number of levels finished
+     *
+     * @return the depth reached
+     */
+    public int getDepth() {
+        return this.levelExpanded.size();
+    }
+
+    /**
+     * Returns the configurations expanded in each finished level, the start's level first
+     *
+     * @return one count per level
+     */
+    public List<Long> getLevelExpanded() {
+        return Collections.unmodifiableList(this.levelExpanded);
+    }
+
+    /**
+     * Returns the size of the queue at the end of each finished level, which is the size of the next level
+     *
+     * @return one size per level
+     */
+    public List<Long> getLevelFrontier() {
+        return Collections.unmodifiableList(this.levelFrontier);
+    }
+
+    public long getExpanded() {
+        return this.expanded;
+    }
+
+    public long getGenerated() {
+        return this.generated;
+    }
+
+    public long getUnique() {
+        return this.unique;
+    }
+
+    /**
+     * Returns the generated configurations that had already been visited
+     *
+     * @return the number of duplicates
+     */
+    public long getDuplicates() {
+        return this.generated - this.unique;
+    }
+
+    /**
+     * Returns the share of generated configurations that had already been visited
+     *
+     * @return a ratio between 0 and 1
+     */
+    public double getDuplicateRatio() {
+        return this.generated == 0 ? 0 : (double) getDuplicates() / this.generated;
+    }
+
+    public long getPeakFrontier() {
+        return this.peakFrontier;
+    }
+
+    public long getPeakVisitedBytes() {
+        return this.peakVisitedBytes;
+    }
+
+    /**
+     * Returns the time spent building neighbors, 0 unless the solver times its searches
+     *
+     * @return nanoseconds spent generating
+     */
+    public long getGenerationNanos() {
+        return this.generationNanos;
+    }
+
+    /**
+     * Returns the time spent looking neighbors up in the visited set, 0 unless the solver times its searches
+     *
+     * @return nanoseconds spent hashing
+     */
+    public long getHashingNanos() {
+        return this.hashingNanos;
+    }
+
+    public long getWallNanos() {
+        return this.wallNanos;
+    }
+
+    /**
+     * Returns the bytes the searching thread allocated during the search
+     *
+     * @return the bytes allocated, or -1 if the search is still running or the JVM can not tell
+     */
+    public long getAllocatedBytes() {
+        return this.allocatedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("depth %d, %d expanded, %d generated, %d unique, %.1f%% duplicates, peak frontier %d,"
+                        + " peak visited %d bytes, generation %d ms, hashing %d ms, wall %d ms, allocated %d bytes",
+                getDepth(), this.expanded, this.generated, this.unique, 100 * getDuplicateRatio(), this.peakFrontier,
+                this.peakVisitedBytes, this.generationNanos / 1_000_000, this.hashingNanos / 1_000_000,
+                this.wallNanos / 1_000_000, this.allocatedBytes);
+    }
+}
@@ -0,0 +1,72 @@
+package solver;
+
+/**
+ * The visited set and predecessor links of an encoded search. Each state code is mapped to the code of the state it
+ * was first reached from. Codes are non-negative, so a negative value can be used to mean "not present".
+ *
+ * @author Miguel Reyes
+ */
+public interface StateTable {
+
+    /**
+     * Returned by {@link #get(long)} when the state has not been visited.
+     */
+    long NOT_FOUND = -1;
+
+    /**
+     * Records a state and its predecessor unless the state is already present, using a single probe sequence.
+     *
+     * @param state  the state code
+     * @param parent the code of the state it was reached from
+     * @return True if the state was added, False if it had already been visited
+     */
+    boolean putIfAbsent(long state, long parent);
+
+    /**
+     * Looks up the predecessor of a state.
+     *
+     * @param state the state code
+     * @return the predecessor's code, or NOT_FOUND if the state has not been visited
+     */
+    long get(long state);
+
+    /**
+     * Returns the number of states visited.
+     *
+     * @return Returns the number of states visited.
+     */
+    int size();
+
+    /**
+     * Returns how many bytes the table is holding on to.
+     *
+     * @return Returns how many bytes the table is holding on to.
+     */
+    long bytes();
+
+    /**
+     * Tells whether the table has no room for another state. Tables that grow are never full.
+     *
+     * @return True if a further insert of a new state would fail
+     */
+    default boolean isFull() {
+        return false;
+    }
+
+    /**
+     * Scrambles a state code so that codes differing only in a few bits, as packed codes usually do, land far apart
+     * in a hash table. This is the finalizer of the 64 bit MurmurHash3.
+     *
+     * @param state the state code
+     * @return the scrambled code
+     */
+    static long mix(long state) {
+        long h = state;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}